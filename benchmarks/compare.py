@@ -0,0 +1,65 @@
+#!/usr/bin/env python3
+"""JMH natijalarini baseline bilan solishtiradi.
+
+    python3 compare.py baseline/baseline.json target/result.json [--threshold 10]
+
+Har bir benchmark (parametrlari bilan) uchun o'zgarish foizini chiqaradi.
+Regressiya: o'zgarish threshold'dan katta VA ishonch oraliqlari kesishmaydi.
+Regressiya bo'lsa chiqish kodi 1 (CI'da ishlatish uchun).
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = {}
+        for entry in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted((entry.get("params") or {}).items()))
+            name = entry["benchmark"].rsplit(".", 2)[-2:]
+            key = ".".join(name) + (f"[{params}]" if params else "")
+            metric = entry["primaryMetric"]
+            results[key] = (entry["mode"], metric["score"], metric.get("scoreError") or 0.0, metric["scoreUnit"])
+        return results
+
+
+def main():
+    parser = argparse.ArgumentParser()
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="foizda (standart 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+
+    regressions = 0
+    print(f"{'benchmark':<60} {'baseline':>14} {'current':>14} {'unit':>10} {'change':>9}")
+    for key in sorted(set(baseline) | set(current)):
+        if key not in baseline or key not in current:
+            side = "yangi" if key not in baseline else "yo'q"
+            print(f"{key:<60} {'':>14} {'':>14} {'':>10} {side:>9}")
+            continue
+
+        mode, base, base_err, unit = baseline[key]
+        _, cur, cur_err, _ = current[key]
+        change = (cur - base) / base * 100 if base else 0.0
+
+        # avgt/sample/ss: kamroq yaxshi; thrpt: ko'proq yaxshi
+        worse = change < 0 if mode == "thrpt" else change > 0
+        overlap = abs(cur - base) <= base_err + cur_err
+        flag = ""
+        if worse and abs(change) > args.threshold and not overlap:
+            flag = "  REGRESSION"
+            regressions += 1
+
+        print(f"{key:<60} {base:>14.3f} {cur:>14.3f} {unit:>10} {change:>+8.1f}%{flag}")
+
+    if regressions:
+        print(f"\n{regressions} ta regressiya (> {args.threshold}%)")
+        sys.exit(1)
+
+
+if __name__ == "__main__":
+    main()
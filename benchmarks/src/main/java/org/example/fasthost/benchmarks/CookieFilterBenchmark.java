@@ -0,0 +1,109 @@
+package org.example.fasthost.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.example.fasthost.config.CookieAuthenticationFilter;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.service.AuthTokenCache;
+import org.example.fasthost.service.SessionService;
+import org.example.fasthost.service.SignedTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CookieAuthenticationFilter}: cookie o'qish, token tekshirish va principal qurish.
+ * <ul>
+ *     <li>{@code anonymous} — cookie yo'q (ochiq sahifalar)</li>
+ *     <li>{@code opaque} — sessiya tokeni, kesh issiq (bazaga murojaat yo'q)</li>
+ *     <li>{@code signed} — HMAC token, principal token ichidan quriladi</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CookieFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    @Param({"anonymous", "opaque", "signed"})
+    String mode;
+
+    private CookieAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private MockFilterChain chain;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Users user = Fixtures.user();
+
+        boolean signed = "signed".equals(mode);
+        SignedTokenService signedTokenService = new SignedTokenService(
+                null, signed ? "signed" : "opaque", signed ? SECRET : "", 604800);
+
+        SessionService.ActiveSession session =
+                new SessionService.ActiveSession(user, LocalDateTime.now().plusDays(1));
+        SessionService sessionService = new SessionService(
+                null, null, null, Duration.ofDays(2), 604800, Duration.ofMinutes(15), 1000) {
+            @Override
+            public Optional<ActiveSession> resolve(String token) {
+                return Optional.of(session);
+            }
+        };
+
+        AuthTokenCache cache = new AuthTokenCache(null, sessionService, signedTokenService, 10_000, Duration.ofMinutes(5));
+        filter = new CookieAuthenticationFilter(cache, signedTokenService, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/orders");
+        switch (mode) {
+            case "opaque" -> request.setCookies(new Cookie("theme", "dark"),
+                    new Cookie("AUTH_TOKEN", "3q2-7wXkzV1pTq0bC1m6mH9a8m4sE0dYlq2rQ9tB2uA"));
+            case "signed" -> request.setCookies(new Cookie("theme", "dark"),
+                    new Cookie("AUTH_TOKEN", signedTokenService.issue(user)));
+            default -> request.setCookies(new Cookie("theme", "dark"), new Cookie("lang", "uz"));
+        }
+        response = new MockHttpServletResponse();
+        chain = new MockFilterChain();
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws ServletException, IOException {
+        filter.doFilter(request, response, chain);
+        chain.reset();
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+}
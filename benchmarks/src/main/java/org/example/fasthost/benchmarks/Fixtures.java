@@ -0,0 +1,78 @@
+package org.example.fasthost.benchmarks;
+
+import org.example.fasthost.entity.Tariffs;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.dto.OrderListItem;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.Role;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Benchmark'lar uchun real o'lchamdagi ma'lumotlar (sahifada 20 buyurtma, 6 tarif).
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Users user() {
+        Users user = Users.builder()
+                .name("Aziz Karimov")
+                .email("aziz@example.uz")
+                .password("$2a$12$abcdefghijklmnopqrstuuKq3e2mZp3c7Zq5bE2o0y8cW0J7m1nWa")
+                .key("unused")
+                .balance(BigDecimal.valueOf(250_000))
+                .isActive(true)
+                .role(Role.USER)
+                .build();
+        user.setId(1042);
+        return user;
+    }
+
+    static List<OrderListItem> orders(int count) {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 0);
+        OrderStatus[] statuses = OrderStatus.values();
+        List<OrderListItem> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(new OrderListItem(
+                    90_000 - i,
+                    TARIFF_NAMES[i % TARIFF_NAMES.length],
+                    statuses[i % statuses.length],
+                    i % 2 == 0 ? 30 : 365,
+                    BigDecimal.valueOf(37_500 + i * 1_000L),
+                    i % 3 == 0 ? null : "site" + i + ".uz",
+                    now.minusDays(i),
+                    now.plusDays(30 - i),
+                    now.minusDays(i)));
+        }
+        return orders;
+    }
+
+    static List<Tariffs> tariffs() {
+        List<Tariffs> tariffs = new ArrayList<>();
+        for (int i = 0; i < TARIFF_NAMES.length; i++) {
+            Tariffs tariff = new Tariffs();
+            tariff.setId(i + 1);
+            tariff.setName(TARIFF_NAMES[i]);
+            tariff.setPrice(500.0 + i * 750);
+            tariff.setLimitQuota(1024 * (i + 1));
+            tariff.setLimitMemory(256 * (i + 1));
+            tariff.setUnlimitedTraffic(i >= 3);
+            tariff.setTrafficLimit(i >= 3 ? null : 50 * (i + 1));
+            tariff.setLimitDomains(i + 1);
+            tariff.setLimitFtpUsers(2 * (i + 1));
+            tariff.setLimitEmails(10 * (i + 1));
+            tariff.setLimitDb(i + 1);
+            tariff.setLimitScheduler(i);
+            tariff.setActive(true);
+            tariffs.add(tariff);
+        }
+        return tariffs;
+    }
+
+    private static final String[] TARIFF_NAMES = {"Start", "Basic", "Standard", "Business", "Pro", "Enterprise"};
+}
@@ -0,0 +1,83 @@
+package org.example.fasthost.benchmarks;
+
+import org.example.fasthost.service.IdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link IdGenerator} va avvalgi {@code UUID.randomUUID()} yo'li — bitta thread,
+ * 8 va 64 thread raqobati ostida. {@code uuid*} — solishtirish uchun asos
+ * (eski sessiya tokeni va hosting login'i shu bilan yaratilardi).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class IdGeneratorBenchmark {
+
+    private final IdGenerator idGenerator = new IdGenerator(0);
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String uuidThreads8() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String uuidThreads64() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String token() {
+        return idGenerator.token();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String tokenThreads8() {
+        return idGenerator.token();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String tokenThreads64() {
+        return idGenerator.token();
+    }
+
+    @Benchmark
+    public String login() {
+        return idGenerator.login();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String loginThreads8() {
+        return idGenerator.login();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String loginThreads64() {
+        return idGenerator.login();
+    }
+}
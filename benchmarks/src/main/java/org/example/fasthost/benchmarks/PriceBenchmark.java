@@ -0,0 +1,66 @@
+package org.example.fasthost.benchmarks;
+
+import org.example.fasthost.entity.Tariffs;
+import org.example.fasthost.service.PricingEngine;
+import org.example.fasthost.service.TariffCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PricingEngine} — har bir buyurtma, uzaytirish va narx ko'rsatishda.
+ * <p>
+ * {@code computeMinor} — formula o'zi, {@code tableLookup} — so'rov yo'lidagi
+ * oldindan hisoblangan jadvaldan o'qish. Ikkalasi ham obyekt yaratmasligi kerak
+ * ({@code -prof gc}: gc.alloc.rate.norm ≈ 0).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PriceBenchmark {
+
+    private static final Integer TARIFF_ID = 1;
+
+    // Chegirmasiz, 5%, 10%, 15% pog'onalari
+    @Param({"30", "90", "180", "365"})
+    int days;
+
+    long dailyMinor;
+    PricingEngine.Tables tables;
+
+    @Setup
+    public void setUp() {
+        Tariffs tariff = new Tariffs();
+        tariff.setId(TARIFF_ID);
+        tariff.setName("Bench");
+        tariff.setPrice(1_250.0);
+        tariff.setActive(true);
+
+        dailyMinor = PricingEngine.toMinor(tariff.getPrice());
+        tables = PricingEngine.Tables.of(TariffCatalog.Snapshot.of(1, "bench", List.of(tariff)));
+    }
+
+    @Benchmark
+    public long computeMinor() {
+        return PricingEngine.computeMinor(dailyMinor, days);
+    }
+
+    @Benchmark
+    public long tableLookup() {
+        return tables.byTariff().get(TARIFF_ID)[days];
+    }
+}
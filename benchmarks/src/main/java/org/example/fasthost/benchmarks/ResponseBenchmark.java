@@ -0,0 +1,52 @@
+package org.example.fasthost.benchmarks;
+
+import org.example.fasthost.entity.dto.OrderCreateResponse;
+import org.example.fasthost.entity.dto.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Response} yaratish: builder va statik fabrikalar.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResponseBenchmark {
+
+    private final OrderCreateResponse payload = new OrderCreateResponse(
+            90_000, BigDecimal.valueOf(37_500), null, LocalDateTime.of(2026, 4, 1, 12, 0), 30,
+            "https://pay.example.com/checkout/5f0c1a9e-8d1b-4c57-9a43-2f7e6b1d0c88");
+
+    @Benchmark
+    public Response<OrderCreateResponse> builder() {
+        return Response.<OrderCreateResponse>builder()
+                .success(true)
+                .message("Buyurtma yaratildi")
+                .data(payload)
+                .build();
+    }
+
+    @Benchmark
+    public Response<OrderCreateResponse> success() {
+        return Response.success(payload);
+    }
+
+    @Benchmark
+    public Response<Void> error() {
+        return Response.error("Balansingizda yetarli mablag‘ yo‘q");
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.fasthost.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * orders.html va hosting.html'ni ilovadagidek (SpringTemplateEngine, SpEL,
+ * kesh yoqilgan) real model bilan render qilish.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class TemplateRenderBenchmark {
+
+    private SpringTemplateEngine engine;
+    private WebContext ordersContext;
+    private WebContext hostingContext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        engine.setEnableSpringELCompiler(true);
+
+        ordersContext = context("/orders");
+        ordersContext.setVariable("user", Fixtures.user());
+        ordersContext.setVariable("orders", Fixtures.orders(20));
+        ordersContext.setVariable("nextCursor", "MjAyNi0wMi0xMFQxMjowMHw4OTk4MQ");
+
+        hostingContext = context("/hosting");
+        hostingContext.setVariable("user", Fixtures.user());
+        hostingContext.setVariable("plans", Fixtures.tariffs());
+    }
+
+    @Benchmark
+    public String orders() {
+        return engine.process("orders", ordersContext);
+    }
+
+    @Benchmark
+    public String hosting() {
+        return engine.process("hosting", hostingContext);
+    }
+
+    private static WebContext context(String path) {
+        MockServletContext servletContext = new MockServletContext();
+        MockHttpServletRequest request = new MockHttpServletRequest(servletContext, "GET", path);
+        IWebExchange exchange = JakartaServletWebApplication.buildApplication(servletContext)
+                .buildExchange(request, new MockHttpServletResponse());
+        return new WebContext(exchange, Locale.forLanguageTag("uz"));
+    }
+}
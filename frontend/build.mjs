@@ -0,0 +1,56 @@
+// dist/ dagi tayyor CSS/JS ni kontent-hash nomi bilan, .gz va .br nusxalari bilan
+// <outputDirectory>/static ga yozadi va <outputDirectory>/templates dagi havolalarni
+// hash'li nomlarga almashtiradi. Argument: Maven'ning target/classes katalogi.
+import {createHash} from "node:crypto";
+import {mkdirSync, readdirSync, readFileSync, statSync, writeFileSync} from "node:fs";
+import {basename, extname, join} from "node:path";
+import {brotliCompressSync, constants, gzipSync} from "node:zlib";
+
+const outputDirectory = process.argv[2] ?? "../target/classes";
+const assets = ["css/app.css", "js/app.js"];
+
+const manifest = {};
+for (const asset of assets) {
+    const content = readFileSync(join("dist", asset));
+    const hash = createHash("sha256").update(content).digest("hex").slice(0, 12);
+    const ext = extname(asset);
+    const hashed = asset.replace(ext, "") + "." + hash + ext;
+
+    const target = join(outputDirectory, "static", hashed);
+    mkdirSync(join(target, ".."), {recursive: true});
+    writeFileSync(target, content);
+    writeFileSync(target + ".gz", gzipSync(content, {level: 9}));
+    writeFileSync(target + ".br", brotliCompressSync(content, {
+        params: {
+            [constants.BROTLI_PARAM_QUALITY]: constants.BROTLI_MAX_QUALITY,
+            [constants.BROTLI_PARAM_SIZE_HINT]: content.length,
+        },
+    }));
+
+    manifest["/" + asset] = "/" + hashed;
+    console.log(`${asset} -> ${hashed} (${content.length} B)`);
+}
+
+let rewritten = 0;
+for (const file of htmlFiles(join(outputDirectory, "templates"))) {
+    const html = readFileSync(file, "utf8");
+    let result = html;
+    for (const [plain, hashed] of Object.entries(manifest)) {
+        result = result.replaceAll(`"${plain}"`, `"${hashed}"`);
+    }
+    if (result !== html) {
+        writeFileSync(file, result);
+        rewritten++;
+    }
+}
+
+writeFileSync(join(outputDirectory, "asset-manifest.json"), JSON.stringify(manifest, null, 2));
+console.log(`templates rewritten: ${rewritten}`);
+
+function htmlFiles(dir) {
+    return readdirSync(dir).flatMap(name => {
+        const path = join(dir, name);
+        if (statSync(path).isDirectory()) return htmlFiles(path);
+        return basename(path).endsWith(".html") ? [path] : [];
+    });
+}
@@ -0,0 +1,13 @@
+// <head>'da yuklanadi: saqlangan mavzu birinchi chizishdan oldin qo'llanadi
+const savedTheme = localStorage.getItem("theme");
+if (savedTheme === "light") {
+    document.documentElement.classList.remove("dark");
+}
+
+function toggleTheme() {
+    document.documentElement.classList.toggle("dark");
+    const isDark = document.documentElement.classList.contains("dark");
+    localStorage.setItem("theme", isDark ? "dark" : "light");
+}
+
+window.toggleTheme = toggleTheme;
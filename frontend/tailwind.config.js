@@ -0,0 +1,15 @@
+/** Avval har bir shablonda inline turgan tailwind.config bilan bir xil */
+export default {
+    content: ["../src/main/resources/templates/**/*.html"],
+    darkMode: "class",
+    theme: {
+        extend: {
+            colors: {
+                primary: "#EF4444",
+            },
+            fontFamily: {
+                sans: ["Inter", "system-ui", "sans-serif"],
+            },
+        },
+    },
+};
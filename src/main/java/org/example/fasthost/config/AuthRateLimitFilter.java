@@ -0,0 +1,147 @@
+package org.example.fasthost.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.service.TokenBucketLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * POST /auth/sign_in va /auth/sign_up uchun so'rov chegarasi.
+ * <p>
+ * Har bir urinish BCrypt ishini talab qiladi, shuning uchun chegaradan oshgan
+ * so'rovlar AuthService'ga yetmasdan 429 bilan qaytariladi. Ikkita mustaqil
+ * limit: mijoz IP'si bo'yicha va email bo'yicha (bitta akkauntga ko'p IP'dan hujum).
+ */
+@Component
+@Slf4j
+public class AuthRateLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final int MAX_EMAIL_LENGTH = 254;
+
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byEmail;
+
+    private final LongAdder limitedByIp = new LongAdder();
+    private final LongAdder limitedByEmail = new LongAdder();
+
+    public AuthRateLimitFilter(@Value("${app.auth-limit.ip.capacity:20}") int ipCapacity,
+                               @Value("${app.auth-limit.ip.refill-period:3s}") Duration ipRefillPeriod,
+                               @Value("${app.auth-limit.email.capacity:5}") int emailCapacity,
+                               @Value("${app.auth-limit.email.refill-period:12s}") Duration emailRefillPeriod,
+                               @Value("${app.auth-limit.stripes:64}") int stripes,
+                               @Value("${app.auth-limit.max-entries:100000}") int maxEntries) {
+        this.byIp = new TokenBucketLimiter(ipCapacity, ipRefillPeriod.toNanos(), stripes, maxEntries);
+        this.byEmail = new TokenBucketLimiter(emailCapacity, emailRefillPeriod.toNanos(), stripes, maxEntries);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return true;
+        }
+        String path = request.getRequestURI();
+        return !path.equals("/auth/sign_in") && !path.equals("/auth/sign_up");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.nanoTime();
+
+        long wait = byIp.tryAcquire(request.getRemoteAddr(), now);
+        if (wait > 0) {
+            limitedByIp.increment();
+            reject(response, wait);
+            return;
+        }
+
+        String email = normalizeEmail(request.getParameter("email"));
+        if (email != null) {
+            wait = byEmail.tryAcquire(email, now);
+            if (wait > 0) {
+                limitedByEmail.increment();
+                reject(response, wait);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long seconds = retryAfterSeconds(waitNanos);
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(seconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(
+                ("Juda ko'p urinish. " + seconds + " soniyadan so'ng qayta urinib ko'ring.")
+                        .getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Butun soniyaga yuqoriga yaxlitlanadi: mijoz ertaroq qaytib yana 429 olmasin
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static String normalizeEmail(String email) {
+        if (email == null) return null;
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) return null;
+        return normalized.length() > MAX_EMAIL_LENGTH ? normalized.substring(0, MAX_EMAIL_LENGTH) : normalized;
+    }
+
+    /* =========================
+       MAINTENANCE / STATS
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${app.auth-limit.evict-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int removed = byIp.evictIdle(now) + byEmail.evictIdle(now);
+        if (removed > 0) {
+            log.debug("Auth rate limiter: {} ta bo'sh bucket o'chirildi", removed);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("fasthost.auth.limited", limitedByIp, LongAdder::sum)
+                .tag("key", "ip")
+                .register(registry);
+        FunctionCounter.builder("fasthost.auth.limited", limitedByEmail, LongAdder::sum)
+                .tag("key", "email")
+                .register(registry);
+        Gauge.builder("fasthost.auth.limiter.keys", this, AuthRateLimitFilter::trackedKeys)
+                .register(registry);
+    }
+
+    public long limitedByIpCount() {
+        return limitedByIp.sum();
+    }
+
+    public long limitedByEmailCount() {
+        return limitedByEmail.sum();
+    }
+
+    public int trackedKeys() {
+        return byIp.size() + byEmail.size();
+    }
+}
@@ -5,12 +5,15 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
 import org.antlr.v4.runtime.misc.NotNull;
 import org.example.fasthost.entity.Users;
-import org.example.fasthost.repository.UsersRepository;
+import org.example.fasthost.service.AuthTokenCache;
+import org.example.fasthost.service.SignedTokenService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,13 +24,40 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CookieAuthenticationFilter extends OncePerRequestFilter {
 
-    private final UsersRepository usersRepository;
+    private final AuthTokenCache authTokenCache;
+    private final SignedTokenService signedTokenService;
+
+    private final Timer lookupTimer;
+    private final Counter authenticated;
+    private final Counter rejected;
+    private final Counter anonymous;
+
+    public CookieAuthenticationFilter(AuthTokenCache authTokenCache,
+                                      SignedTokenService signedTokenService,
+                                      MeterRegistry meterRegistry) {
+        this.authTokenCache = authTokenCache;
+        this.signedTokenService = signedTokenService;
+
+        this.lookupTimer = Timer.builder("fasthost.auth.filter.lookup")
+                .description("Cookie token bo'yicha principal topish (kesh/DB yoki HMAC)")
+                .tag("mode", signedTokenService.isEnabled() ? "signed" : "opaque")
+                .register(meterRegistry);
+        this.authenticated = resultCounter(meterRegistry, "authenticated");
+        this.rejected = resultCounter(meterRegistry, "rejected");
+        this.anonymous = resultCounter(meterRegistry, "anonymous");
+    }
+
+    private static Counter resultCounter(MeterRegistry registry, String result) {
+        return Counter.builder("fasthost.auth.filter.requests")
+                .tag("result", result)
+                .register(registry);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -43,11 +73,13 @@ public class CookieAuthenticationFilter extends OncePerRequestFilter {
             log.debug("Token topildi: {}", token.substring(0, Math.min(8, token.length())) + "...");
 
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                Optional<Users> userOpt = usersRepository.findByKey(token);
+                long started = System.nanoTime();
+                Optional<Users> userOpt = resolveUser(token);
+                lookupTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
                 if (userOpt.isPresent() && userOpt.get().isActive()) {
                     Users user = userOpt.get();
-                    log.info("Foydalanuvchi autentifikatsiya qilindi: {}", user.getName());
+                    log.info("Foydalanuvchi autentifikatsiya qilindi: id={}", user.getId());
 
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
@@ -58,18 +90,40 @@ public class CookieAuthenticationFilter extends OncePerRequestFilter {
 
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    authenticated.increment();
                     log.debug("Authentication context o'rnatildi");
                 } else {
+                    rejected.increment();
                     log.warn("Token yaroqsiz yoki user bloklangan");
                 }
             }
         } else {
+            anonymous.increment();
             log.debug("Token topilmadi");
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Imzolangan rejimda principal faqat token ichidagi ma'lumotdan quriladi (bazasiz),
+     * aks holda keshdan olinadi.
+     */
+    private Optional<Users> resolveUser(String token) {
+        if (!signedTokenService.isEnabled()) {
+            return authTokenCache.get(token);
+        }
+
+        return signedTokenService.verify(token).map(claims -> {
+            Users user = Users.builder()
+                    .role(claims.role())
+                    .isActive(true)
+                    .build();
+            user.setId(claims.userId());
+            return user;
+        });
+    }
+
     private String getTokenFromCookie(HttpServletRequest request) {
         Cookie[] cookies = request.getCookies();
         if (cookies != null) {
@@ -0,0 +1,74 @@
+package org.example.fasthost.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BaseEntity IDENTITY'dan pooled SEQUENCE'ga o'tgani uchun: mavjud jadvallarda
+ * sequence qiymati max(id) dan orqada qolmasligini ishga tushishda tekshiradi.
+ * <p>
+ * Jadval -> sequence xaritasi Hibernate metamodel'idan olinadi: sequence
+ * generator'li har bir entity (yangilari ham) avtomatik qamraladi.
+ * <p>
+ * Pooled optimizer sequence qiymatini blokning yuqori chegarasi deb oladi
+ * (id'lar: value - 49 .. value), shuning uchun {@code setval(seq, max(id))} yetarli:
+ * keyingi blok max(id) + 1 dan boshlanadi. Sequence faqat orqada qolgan bo'lsa
+ * va bitta statement ichida suriladi — bir vaqtda ishga tushgan instance'lar
+ * uni hech qachon orqaga qaytarmaydi.
+ */
+@Component
+@DependsOn("entityManagerFactory") // sequence'lar ddl-auto bilan yaratilgandan keyin
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceInitializer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        sequences().forEach(this::align);
+    }
+
+    /**
+     * Jadval -> sequence, sequence generator'li barcha entity'lar bo'yicha.
+     */
+    Map<String, String> sequences() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        Map<String, String> sequences = new TreeMap<>();
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+            if (persister.getGenerator() instanceof SequenceStyleGenerator generator
+                    && persister instanceof AbstractEntityPersister entityPersister) {
+                sequences.put(entityPersister.getTableName(),
+                        generator.getDatabaseStructure().getPhysicalName().render());
+            }
+        });
+        return sequences;
+    }
+
+    private void align(String table, String sequence) {
+        // Bo'sh jadval (yangi baza) — tekshiradigan narsa yo'q
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        if (maxId == null) return;
+
+        // Shartli va atomik: sequence oldinda bo'lsa hech narsa yozilmaydi
+        Long aligned = jdbcTemplate.query(
+                "SELECT setval('" + sequence + "', m.max_id) FROM (SELECT MAX(id) AS max_id FROM " + table + ") m " +
+                        "WHERE m.max_id > (SELECT last_value FROM " + sequence + ")",
+                rs -> rs.next() ? rs.getLong(1) : null);
+        if (aligned != null) {
+            log.info("Sequence {} moslashtirildi: max(id)={}", sequence, aligned);
+        }
+    }
+}
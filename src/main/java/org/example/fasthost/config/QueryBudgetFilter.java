@@ -0,0 +1,106 @@
+package org.example.fasthost.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * So'rov boshiga SQL byudjeti va N+1 detektori.
+ * <p>
+ * Har bir so'rov (security filter'lari ham) bitta {@link QueryScope} ichida
+ * bajariladi. Byudjetdan oshsa yoki bir xil SQL ko'p marta takrorlansa —
+ * ogohlantirish log'i va metrika; natija {@link #STATS_ATTRIBUTE} atributida
+ * qoladi (integratsion testlar uchun).
+ */
+@Component
+@Slf4j
+public class QueryBudgetFilter extends OncePerRequestFilter implements Ordered {
+
+    public static final String STATS_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".STATS";
+
+    private static final int MAX_LOGGED_SQL = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int maxPerRequest;
+    private final int repeatThreshold;
+
+    public QueryBudgetFilter(MeterRegistry meterRegistry,
+                             @Value("${app.query-budget.enabled:true}") boolean enabled,
+                             @Value("${app.query-budget.max-per-request:10}") int maxPerRequest,
+                             @Value("${app.query-budget.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxPerRequest = maxPerRequest;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryScope scope = QueryScope.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            request.setAttribute(STATS_ATTRIBUTE, scope);
+            report(request, scope);
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryScope scope) {
+        int total = scope.total();
+
+        // Shablon (/orders/{id}) — kardinallik past bo'lsin
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+
+        DistributionSummary.builder("fasthost.http.queries")
+                .description("So'rov boshiga SQL statement'lar")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(total);
+
+        if (total > maxPerRequest) {
+            Counter.builder("fasthost.http.queries.over_budget").tag("uri", uri).register(meterRegistry).increment();
+            log.warn("SQL byudjetidan oshdi: {} {} -> {} ta so'rov (byudjet {})",
+                    request.getMethod(), uri, total, maxPerRequest);
+        }
+
+        Map<String, Integer> repeated = scope.repeated(repeatThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("fasthost.http.queries.repeated").tag("uri", uri).register(meterRegistry).increment();
+            Map.Entry<String, Integer> worst = repeated.entrySet().iterator().next();
+            log.warn("N+1 shubhasi: {} {} -> bir xil SQL {} marta: {}",
+                    request.getMethod(), uri, worst.getValue(), abbreviate(worst.getKey()));
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.fasthost.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate'ning har bir SQL'ini joriy {@link QueryScope}'ga yozadi.
+ * {@code hibernate.session_factory.statement_inspector} orqali ulanadi
+ * (Hibernate o'zi yaratadi, shuning uchun Spring bean emas).
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryScope.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.fasthost.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bitta so'rov (yoki test bloki) davomida Hibernate yuborgan SQL'lar hisobi.
+ * <p>
+ * Joriy thread'ga bog'lanadi: {@link QueryCountInspector} har bir statement'ni
+ * shu yerga yozadi. Ichma-ich ochilsa, yopilganda oldingi scope tiklanadi.
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+
+    private final QueryScope previous;
+    private final Map<String, Integer> bySql = new HashMap<>();
+    private int total;
+
+    private QueryScope(QueryScope previous) {
+        this.previous = previous;
+    }
+
+    public static QueryScope open() {
+        QueryScope scope = new QueryScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        QueryScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.total++;
+            scope.bySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /** Jami statement'lar soni */
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Kamida {@code threshold} marta takrorlangan bir xil SQL'lar (N+1 belgisi),
+     * eng ko'p takrorlangani birinchi.
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        bySql.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+}
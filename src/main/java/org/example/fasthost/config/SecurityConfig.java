@@ -1,6 +1,9 @@
 package org.example.fasthost.config;
 
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.example.fasthost.service.AuthService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -8,7 +11,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -19,14 +21,14 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final CookieAuthenticationFilter cookieAuthenticationFilter;
+    private final AuthRateLimitFilter authRateLimitFilter;
 
-    @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
-    }
+    // Actuator faqat shu portda (application.properties), asosiy portda ochiq emas
+    @Value("${management.server.port:-1}")
+    private int managementPort;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthService authService) {
 
         http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -42,12 +44,15 @@ public class SecurityConfig {
                                 "/auth/**",
                                 "/home",
                                 "/error",
+                                // To'lov provayderi: cookie yo'q, tana HMAC bilan imzolangan
+                                "/payments/callback",
 
                                 "/favicon.ico",
                                 "/images/**",
                                 "/css/**",
                                 "/js/**"
                         ).permitAll()
+                        .requestMatchers(this::isManagementPort).permitAll()
 
                         .requestMatchers(
                                 "/index",
@@ -66,12 +71,19 @@ public class SecurityConfig {
                 .logout(logout -> logout
                         .logoutUrl("/logout")
                         .logoutSuccessUrl("/")
+                        .addLogoutHandler((request, response, authentication) ->
+                                authService.logout(request, response))
                         .invalidateHttpSession(true)
                         .deleteCookies("SESSION", "AUTH_TOKEN")
                 )
 
-                .addFilterBefore(cookieAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(cookieAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(authRateLimitFilter, CookieAuthenticationFilter.class);
 
         return http.build();
     }
+
+    private boolean isManagementPort(HttpServletRequest request) {
+        return managementPort > 0 && request.getLocalPort() == managementPort;
+    }
 }
@@ -0,0 +1,56 @@
+package org.example.fasthost.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.fasthost.entity.dto.Response;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrdersService va AuthService public metodlari uchun latency histogrammalari.
+ * <p>
+ * Tranzaksiya proxy'sidan tashqarida ishlaydi — commit vaqti ham o'lchanadi.
+ * Teglar: {@code operation} (metod nomi) va {@code outcome}
+ * ({@code success} / {@code error} — Response.success=false / {@code exception}).
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(public * org.example.fasthost.service.OrdersService.*(..))")
+    public Object timeOrders(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("fasthost.orders", joinPoint);
+    }
+
+    @Around("execution(public * org.example.fasthost.service.AuthService.*(..))")
+    public Object timeAuth(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("fasthost.auth", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        long started = System.nanoTime();
+        String outcome = "exception";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = result instanceof Response<?> response && !response.isSuccess() ? "error" : "success";
+            return result;
+        } finally {
+            Timer.builder(name)
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+}
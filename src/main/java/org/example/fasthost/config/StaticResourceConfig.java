@@ -0,0 +1,47 @@
+package org.example.fasthost.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+
+import java.time.Duration;
+
+/**
+ * frontend/ build'i chiqaradigan CSS/JS: fayl nomida kontent hash bor
+ * (app.3f9c2a1b7e4d.css), shuning uchun bir yil va immutable keshlanadi.
+ * Brauzer qo'llasa tayyor .br / .gz nusxa beriladi — runtime'da siqish yo'q.
+ * <p>
+ * Hash'siz {@code /css/app.css}, {@code /js/app.js} — build'siz ishga tushirish uchun
+ * checked-in fallback (src/main/resources/static): nomi o'zgarmaydi, shuning uchun keshlanmaydi.
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final String[] DEV_FALLBACKS = {"/css/app.css", "/js/app.js"};
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Aniq yo'l /css/** dan ustun turadi
+        registry.addResourceHandler(DEV_FALLBACKS)
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache());
+
+        registry.addResourceHandler("/css/**")
+                .addResourceLocations("classpath:/static/css/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+
+        registry.addResourceHandler("/js/**")
+                .addResourceLocations("classpath:/static/js/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.fasthost.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.fasthost.entity.dto.Response;
+import org.example.fasthost.service.AuthService;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private final AuthService authService;
+
+    /**
+     * Foydalanuvchini bloklash (API): sessiyalar va keshdagi principal darhol yaroqsiz
+     */
+    @PostMapping("/users/{id}/deactivate")
+    @ResponseBody
+    public Response<Void> deactivateUser(@PathVariable Integer id) {
+        return authService.deactivate(id);
+    }
+}
@@ -1,12 +1,20 @@
 package org.example.fasthost.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.example.fasthost.service.AuthService;
+import org.example.fasthost.service.PasswordHashingService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.nio.charset.StandardCharsets;
+
 @Controller
 @RequiredArgsConstructor
 @RequestMapping("/auth")
@@ -18,10 +26,11 @@ public class AuthController {
             @RequestParam String name,
             @RequestParam String password,
             @RequestParam String email,
+            HttpServletRequest request,
             HttpServletResponse response,
             RedirectAttributes redirect
     ) {
-        var result = authService.sign_up(name, password, email, response);
+        var result = authService.sign_up(name, password, email, request, response);
 
         if (!result.isSuccess()) {
             redirect.addFlashAttribute("error", result.getMessage());
@@ -35,10 +44,11 @@ public class AuthController {
     public String sign_in(
             @RequestParam String email,
             @RequestParam String password,
+            HttpServletRequest request,
             HttpServletResponse response,
             RedirectAttributes redirect
     ) {
-        var result = authService.sign_in(email, password, response);
+        var result = authService.sign_in(email, password, request, response);
 
         if (!result.isSuccess()) {
             redirect.addFlashAttribute("error", result.getMessage());
@@ -47,4 +57,15 @@ public class AuthController {
         return "redirect:/index";
     }
 
+    /**
+     * Hash pool to'lgan: flash xabar emas, 503 + Retry-After — balanser va mijozlar
+     * so'rovni boshqa instance'ga yuborishi yoki kutishi mumkin.
+     */
+    @ExceptionHandler(PasswordHashingService.HashingBusyException.class)
+    public ResponseEntity<String> hashingBusy(PasswordHashingService.HashingBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.retryAfterSeconds()))
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(e.getMessage());
+    }
 }
@@ -1,18 +1,26 @@
 package org.example.fasthost.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.example.fasthost.entity.Orders;
 import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.dto.BulkOrderRequest;
+import org.example.fasthost.entity.dto.CursorPage;
 import org.example.fasthost.entity.dto.OrderCreateRequest;
 import org.example.fasthost.entity.dto.OrderCreateResponse;
+import org.example.fasthost.entity.dto.OrderDetails;
+import org.example.fasthost.entity.dto.OrderListItem;
 import org.example.fasthost.entity.dto.Response;
 import org.example.fasthost.service.OrdersService;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
 import java.util.List;
 
 @Controller
@@ -21,17 +29,23 @@ import java.util.List;
 public class OrdersController {
 
     private final OrdersService ordersService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Foydalanuvchining buyurtmalari ro'yxati (View)
      */
     @GetMapping
-    public String ordersPage(@AuthenticationPrincipal Users user, Model model) {
-        Response<List<Orders>> response = ordersService.getUserOrders(user);
+    public String ordersPage(@AuthenticationPrincipal Users user,
+                             @RequestParam(required = false) String cursor,
+                             @RequestParam(required = false) Integer size,
+                             Model model) {
+        Response<CursorPage<OrderListItem>> response = ordersService.getUserOrders(user, cursor, size);
 
         if (response.isSuccess()) {
-            model.addAttribute("orders", response.getData());
+            model.addAttribute("orders", response.getData().items());
+            model.addAttribute("nextCursor", response.getData().nextCursor());
         } else {
+            model.addAttribute("orders", List.of());
             model.addAttribute("error", response.getMessage());
         }
 
@@ -46,7 +60,7 @@ public class OrdersController {
                                @AuthenticationPrincipal Users user,
                                Model model,
                                RedirectAttributes redirect) {
-        Response<Orders> response = ordersService.getOrderDetails(id, user);
+        Response<OrderDetails> response = ordersService.getOrderDetails(id, user);
 
         if (response.isSuccess()) {
             model.addAttribute("order", response.getData());
@@ -67,6 +81,16 @@ public class OrdersController {
         return ordersService.createOrder(request, user);
     }
 
+    /**
+     * Bir nechta buyurtmani bitta tranzaksiyada yaratish (API, reseller'lar uchun)
+     */
+    @PostMapping("/bulk")
+    @ResponseBody
+    public Response<List<OrderCreateResponse>> createOrders(@RequestBody BulkOrderRequest request,
+                                                            @AuthenticationPrincipal Users user) {
+        return ordersService.createOrders(request.getItems(), user);
+    }
+
     /**
      * Yangi buyurtma yaratish (Form)
      */
@@ -86,15 +110,6 @@ public class OrdersController {
         }
     }
 
-    /**
-     * To'lovni tasdiqlash (Callback URL)
-     */
-    @PostMapping("/confirm-payment")
-    @ResponseBody
-    public Response<Void> confirmPayment(@RequestParam String paymentId) {
-        return ordersService.confirmPayment(paymentId);
-    }
-
     /**
      * Buyurtmani bekor qilish
      */
@@ -114,14 +129,14 @@ public class OrdersController {
     }
 
     /**
-     * Buyurtmani uzaytirish
+     * Buyurtmani uzaytirish (kun bilan, pog'onalar: 90/180/365)
      */
     @PostMapping("/{id}/extend")
     public String extendOrder(@PathVariable Integer id,
-                              @RequestParam Integer months,
+                              @RequestParam Integer days,
                               @AuthenticationPrincipal Users user,
                               RedirectAttributes redirect) {
-        Response<Void> response = ordersService.extendOrder(id, months, user);
+        Response<Void> response = ordersService.extendOrder(id, days, user);
 
         if (response.isSuccess()) {
             redirect.addFlashAttribute("success", response.getMessage());
@@ -137,8 +152,32 @@ public class OrdersController {
      */
     @GetMapping("/api/list")
     @ResponseBody
-    public Response<List<Orders>> getUserOrdersApi(@AuthenticationPrincipal Users user) {
-        return ordersService.getUserOrders(user);
+    public Response<CursorPage<OrderListItem>> getUserOrdersApi(@AuthenticationPrincipal Users user,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        return ordersService.getUserOrders(user, cursor, size);
+    }
+
+    /**
+     * Barcha buyurtmalar (REST API, eksport): {"success":true,"data":[...]}
+     * qatorma-qator yoziladi — katta hisob uchun ham ro'yxat yig'ilmaydi.
+     */
+    @GetMapping("/api/export")
+    public void exportOrdersApi(@AuthenticationPrincipal Users user,
+                                HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeName("success");
+            generator.writeBoolean(true);
+            generator.writeName("data");
+            generator.writeStartArray();
+            ordersService.exportUserOrders(user, generator::writePOJO);
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
     }
 
     /**
@@ -146,8 +185,8 @@ public class OrdersController {
      */
     @GetMapping("/api/{id}")
     @ResponseBody
-    public Response<Orders> getOrderDetailsApi(@PathVariable Integer id,
-                                               @AuthenticationPrincipal Users user) {
+    public Response<OrderDetails> getOrderDetailsApi(@PathVariable Integer id,
+                                                     @AuthenticationPrincipal Users user) {
         return ordersService.getOrderDetails(id, user);
     }
 }
\ No newline at end of file
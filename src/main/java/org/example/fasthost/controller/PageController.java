@@ -1,25 +1,41 @@
 package org.example.fasthost.controller;
 
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.example.fasthost.repository.TariffsRepository;
-import org.example.fasthost.repository.UsersRepository;
-import org.example.fasthost.service.HomeService;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.dto.PriceQuote;
+import org.example.fasthost.entity.dto.Response;
+import org.example.fasthost.service.AuthTokenCache;
+import org.example.fasthost.service.PricingEngine;
+import org.example.fasthost.service.RenderedPageCache;
+import org.example.fasthost.service.TariffCatalog;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Map;
 
 @Controller
 @RequiredArgsConstructor
 public class PageController {
 
-    private final TariffsRepository tariffsRepository;
-    private final UsersRepository usersRepository;
+    private final TariffCatalog tariffCatalog;
+    private final AuthTokenCache authTokenCache;
+    private final PricingEngine pricingEngine;
+    private final RenderedPageCache renderedPageCache;
 
+    // Katalog o'zgarmaguncha keshdan, ETag bilan
     @GetMapping("/")
-    public String root() {
-        return "home";
+    @ResponseBody
+    public ResponseEntity<byte[]> root(@CookieValue(value = "AUTH_TOKEN", required = false) String token,
+                                       WebRequest request) {
+        return renderedPageCache.render("home", Map::of, currentUser(token), request);
     }
 
     @GetMapping("/index")
@@ -28,9 +44,48 @@ public class PageController {
     }
 
     @GetMapping("/hosting")
-    public String hosting(Model model) {
-        model.addAttribute("plans", tariffsRepository.findAllByActiveTrue());
-        return "hosting";
+    @ResponseBody
+    public ResponseEntity<byte[]> hosting(@CookieValue(value = "AUTH_TOKEN", required = false) String token,
+                                          WebRequest request) {
+        return renderedPageCache.render("hosting",
+                () -> Map.of("plans", tariffCatalog.activeTariffs()), currentUser(token), request);
+    }
+
+    /**
+     * Narx ko'rsatish (API): buyurtma yaratmasdan.
+     * Javob katalog versiyasiga bog'liq — ETag o'zgarmaguncha brauzer 304 oladi.
+     */
+    @GetMapping("/hosting/quote")
+    @ResponseBody
+    public ResponseEntity<Response<PriceQuote>> quote(@RequestParam Integer tariffId,
+                                                      @RequestParam int days,
+                                                      WebRequest request) {
+        // Jadvalda nofaol tariflar ham bor (mavjud buyurtmani uzaytirish uchun),
+        // lekin yangi buyurtma faqat faol tarifga beriladi — narx ham shunga
+        boolean orderable = tariffCatalog.findById(tariffId)
+                .map(tariff -> Boolean.TRUE.equals(tariff.getActive()))
+                .orElse(false);
+        if (!orderable) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Response.error("Tarif topilmadi"));
+        }
+
+        long totalMinor = pricingEngine.totalMinor(tariffId, days);
+        if (totalMinor == PricingEngine.NO_PRICE) {
+            return ResponseEntity.badRequest().body(Response.error("Tarif yoki muddat noto‘g‘ri"));
+        }
+
+        String etag = "\"q" + pricingEngine.version() + "-" + tariffId + "-" + days + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        int discountPercent = 100 - PricingEngine.discountBp(days) / 100;
+        PriceQuote quote = new PriceQuote(tariffId, days, discountPercent, PricingEngine.toMajor(totalMinor));
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePrivate())
+                .eTag(etag)
+                .body(Response.success(quote));
     }
 
     @GetMapping("/settings")
@@ -40,11 +95,14 @@ public class PageController {
 
     @GetMapping("/auth")
     public String authPage(@CookieValue(value = "AUTH_TOKEN", required = false) String token) {
-        if (token != null && usersRepository.findByKey(token).isPresent()) {
+        if (authTokenCache.get(token).isPresent()) {
             return "redirect:/index";
         }
         return "auth";
     }
 
-
+    // Filter shu tokenni allaqachon keshga yuklagan
+    private Users currentUser(String token) {
+        return authTokenCache.get(token).orElse(null);
+    }
 }
@@ -0,0 +1,62 @@
+package org.example.fasthost.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.dto.PaymentCallbackRequest;
+import org.example.fasthost.entity.dto.Response;
+import org.example.fasthost.service.PaymentCallbackIngestion;
+import org.example.fasthost.service.PaymentSignatureVerifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * To'lov provayderi callback'i. Cookie autentifikatsiyasisiz ochiq (SecurityConfig),
+ * uning o'rniga tana imzolanadi ({@link PaymentSignatureVerifier}).
+ */
+@Controller
+@RequiredArgsConstructor
+@RequestMapping("/payments")
+@Slf4j
+public class PaymentCallbackController {
+
+    private final PaymentSignatureVerifier signatureVerifier;
+    private final PaymentCallbackIngestion paymentCallbackIngestion;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Imzo tekshiruvidan va dedupe'dan keyin darhol javob,
+     * buyurtma fonda paket bilan faollashtiriladi
+     */
+    @PostMapping(value = "/callback", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<Response<Void>> callback(@RequestBody byte[] body,
+                                                   @RequestHeader(name = PaymentSignatureVerifier.HEADER, required = false)
+                                                   String signature) {
+        // Imzosiz so'rov bazaga (dedupe INSERT) yetib bormaydi
+        if (!signatureVerifier.verify(body, signature)) {
+            log.warn("Payment callback signature rejected");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Response.error("Imzo noto'g'ri"));
+        }
+
+        PaymentCallbackRequest request;
+        try {
+            request = objectMapper.readValue(body, PaymentCallbackRequest.class);
+        } catch (JacksonException e) {
+            return ResponseEntity.badRequest().body(Response.error("Noto'g'ri so'rov"));
+        }
+
+        Response<Void> response = paymentCallbackIngestion.accept(request.paymentId());
+        return response.isSuccess()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.badRequest().body(response);
+    }
+}
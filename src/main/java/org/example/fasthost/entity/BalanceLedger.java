@@ -0,0 +1,47 @@
+package org.example.fasthost.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.fasthost.entity.abs.BaseEntity;
+import org.example.fasthost.entity.enums.LedgerEntryType;
+
+import java.math.BigDecimal;
+
+/**
+ * Balans harakatlari jurnali (faqat qo'shiladi, hech qachon o'zgartirilmaydi).
+ * users.balance — shu jurnal yig'indisining keshlangan qiymati.
+ */
+@Entity
+@Table(
+        name = "balance_ledger",
+        indexes = {
+                @Index(name = "idx_balance_ledger_user", columnList = "user_id, id"),
+                @Index(name = "idx_balance_ledger_order", columnList = "order_id"),
+                @Index(name = "idx_balance_ledger_opening", columnList = "opening_user_id", unique = true)
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceLedger extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Integer userId;
+
+    @Column(name = "order_id", updatable = false)
+    private Integer orderId;
+
+    /** Musbat — kirim, manfiy — chiqim */
+    @Column(nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 30)
+    private LedgerEntryType type;
+
+    /** Faqat OPENING_BALANCE yozuvida = userId (unique): foydalanuvchiga bittadan ortiq boshlang'ich yozuv tushmaydi */
+    @Column(name = "opening_user_id", updatable = false)
+    private Integer openingUserId;
+}
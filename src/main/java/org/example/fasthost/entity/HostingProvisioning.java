@@ -0,0 +1,62 @@
+package org.example.fasthost.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.fasthost.entity.enums.ProvisioningStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Hosting akkauntini yaratish navbati: order_id bo'yicha bitta qator.
+ * <p>
+ * Qator {@code INSERT ... WHERE NOT EXISTS} bilan yoziladi (order_id — PK) — ACTIVATED
+ * hodisasi qayta kelsa ham ikkinchi marta navbatga qo'yilmaydi. Muvaffaqiyatsiz
+ * urinishdan keyin {@code next_attempt_time} backoff bilan suriladi.
+ * <p>
+ * IN_PROGRESS qator {@code owner} instance'ga {@code lease_until}gacha tegishli:
+ * natijani faqat egasi yozadi, muddati o'tganini istalgan instance qayta navbatga qo'yadi.
+ */
+@Entity
+@Table(
+        name = "hosting_provisioning",
+        indexes = {
+                @Index(name = "idx_hosting_provisioning_due", columnList = "status, next_attempt_time")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HostingProvisioning {
+
+    @Id
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ProvisioningStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_time", nullable = false)
+    private LocalDateTime nextAttemptTime;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "queued_time", nullable = false)
+    private LocalDateTime queuedTime;
+
+    @Column(name = "completed_time")
+    private LocalDateTime completedTime;
+
+    /** IN_PROGRESS paytida: paketni olgan instance ({@code LeaseService.owner()}) */
+    @Column(length = 36)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,33 @@
+package org.example.fasthost.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Klaster bo'ylab nomlangan lease'lar: {@code name} bo'yicha bitta qator.
+ * <p>
+ * Egasi ({@code owner}) {@code lease_until}gacha uni ushlab turadi va muddat
+ * tugashidan oldin uzaytiradi. Muddati o'tgan lease'ni boshqa instance shartli
+ * UPDATE bilan oladi — jarayon to'xtasa ham lease abadiy band bo'lib qolmaydi.
+ */
+@Entity
+@Table(name = "leases")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Leases {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 36)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private LocalDateTime leaseUntil;
+}
@@ -0,0 +1,90 @@
+package org.example.fasthost.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Buyurtmalar ro'yxati uchun tekis (denormalizatsiya qilingan) read model.
+ * OrdersService har bir o'zgarishda shu tranzaksiya ichida yangilaydi,
+ * ro'yxat sahifalari va API faqat shu jadvaldan o'qiydi (join / lazy yuklash yo'q).
+ */
+@Entity
+@Table(
+        name = "order_summaries",
+        indexes = {
+                @Index(name = "idx_order_summaries_user_created", columnList = "user_id, create_time, order_id")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaries implements Persistable<Integer> {
+
+    @Id
+    @Column(name = "order_id")
+    private Integer orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(name = "tariff_id", nullable = false)
+    private Integer tariffId;
+
+    @Column(name = "tariff_name", nullable = false)
+    private String tariffName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OrderStatus status;
+
+    @Column(name = "duration_days", nullable = false)
+    private Integer durationDays;
+
+    @Column(name = "total_price", nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalPrice;
+
+    @Column(name = "domain_name")
+    private String domainName;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    /** Buyurtma yaratilgan vaqt (orders.create_time bilan bir xil) */
+    @Column(name = "create_time", nullable = false)
+    private LocalDateTime createTime;
+
+    /** Id qo'lda beriladi: yangi qatorda merge (ortiqcha SELECT) o'rniga persist bo'lsin */
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    private boolean newSummary = true;
+
+    @Override
+    @JsonIgnore
+    public Integer getId() {
+        return orderId;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newSummary;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newSummary = false;
+    }
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
         indexes = {
                 @Index(name = "idx_orders_user", columnList = "user_id"),
                 @Index(name = "idx_orders_status", columnList = "status"),
-                @Index(name = "idx_orders_end_time", columnList = "end_time")
+                @Index(name = "idx_orders_end_time", columnList = "end_time"),
+                @Index(name = "idx_orders_login", columnList = "login", unique = true)
         }
 )
 @Getter
@@ -49,6 +50,14 @@ public class Orders extends BaseEntity {
     @Column(name = "total_price", nullable = false, precision = 15, scale = 2)
     private BigDecimal totalPrice;
 
+    /** Hosting ulangan domen (ixtiyoriy) */
+    @Column(name = "domain_name")
+    private String domainName;
+
+    /** To'lov tizimidagi identifikator (callback shu bo'yicha keladi) */
+    @Column(name = "payment_id", unique = true, length = 100)
+    private String paymentId;
+
     /* =========================
        STATUS
        ========================= */
@@ -0,0 +1,50 @@
+package org.example.fasthost.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.fasthost.entity.abs.BaseEntity;
+import org.example.fasthost.entity.enums.OrderEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox: buyurtma o'zgarishi bilan bir tranzaksiyada yoziladi,
+ * {@code OutboxRelay} seq tartibida o'qib sink'larga yetkazadi va published_time qo'yadi.
+ * <p>
+ * {@code id} pooled sequence'dan — har bir instance o'z blokidan oladi, shuning uchun
+ * id tartibi yozilish tartibi emas. {@code seq} esa bazaning identity ustuni: har bir
+ * INSERT'da baza beradi, bitta buyurtmaning ketma-ket (qulf bilan navbatlashgan)
+ * o'zgarishlari instance'dan qat'i nazar o'sish tartibida oladi.
+ */
+@Entity
+@Table(
+        name = "outbox_events",
+        indexes = {
+                @Index(name = "idx_outbox_events_unpublished", columnList = "published_time, seq")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvents extends BaseEntity {
+
+    @Column(name = "order_id", nullable = false, updatable = false)
+    private Integer orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private OrderEventType type;
+
+    /** JSON ({@link org.example.fasthost.entity.dto.OrderEvent}) */
+    @Column(nullable = false, updatable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "published_time")
+    private LocalDateTime publishedTime;
+
+    // INSERT'da yozilmaydi va qaytarib o'qilmaydi: faqat relay so'rovidagi tartib uchun
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint generated by default as identity")
+    private Long seq;
+}
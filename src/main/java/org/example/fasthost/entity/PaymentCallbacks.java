@@ -0,0 +1,50 @@
+package org.example.fasthost.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.fasthost.entity.enums.PaymentCallbackStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * To'lov tizimi callback'lari: payment_id bo'yicha dedupe jurnali.
+ * <p>
+ * Qator faqat {@code INSERT ... WHERE NOT EXISTS} bilan yoziladi (payment_id — PK),
+ * qayta yuborilgan callback ikkinchi marta qabul qilinmaydi. RECEIVED qatorlar
+ * ishga tushishda va davriy ravishda qayta navbatga qo'yiladi, shuning uchun
+ * tasdiqlangan (ack) callback jarayon to'xtasa ham yo'qolmaydi. Har bir xato
+ * {@code attempts}'ni oshiradi; chegaraga yetgan qator FAILED bo'ladi va navbatni
+ * to'sib qo'ymaydi.
+ */
+@Entity
+@Table(
+        name = "payment_callbacks",
+        indexes = {
+                @Index(name = "idx_payment_callbacks_status", columnList = "status, received_time")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaymentCallbacks {
+
+    @Id
+    @Column(name = "payment_id", length = 100)
+    private String paymentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentCallbackStatus status;
+
+    @Column(name = "received_time", nullable = false)
+    private LocalDateTime receivedTime;
+
+    @Column(name = "processed_time")
+    private LocalDateTime processedTime;
+
+    /** Xato bilan tugagan qo'llash urinishlari */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+}
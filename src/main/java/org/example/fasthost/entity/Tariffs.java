@@ -2,12 +2,14 @@ package org.example.fasthost.entity;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
 import lombok.*;
 import org.example.fasthost.entity.abs.BaseEntity;
 
 @Entity
 @Table(name = "tariffs")
+@EntityListeners(TariffsChangeListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,29 @@
+package org.example.fasthost.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.example.fasthost.service.TariffCatalog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tarif o'zgarganda katalog snapshot'ini yangilaydi.
+ * TariffCatalog EntityManagerFactory'ga bog'liq, shuning uchun ObjectProvider orqali olinadi.
+ */
+@Component
+public class TariffsChangeListener {
+
+    private final ObjectProvider<TariffCatalog> tariffCatalog;
+
+    public TariffsChangeListener(ObjectProvider<TariffCatalog> tariffCatalog) {
+        this.tariffCatalog = tariffCatalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onChange(Tariffs tariff) {
+        tariffCatalog.ifAvailable(TariffCatalog::refreshAfterCommit);
+    }
+}
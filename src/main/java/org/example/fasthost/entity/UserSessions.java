@@ -0,0 +1,48 @@
+package org.example.fasthost.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.example.fasthost.entity.abs.BaseEntity;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "user_sessions",
+        indexes = {
+                @Index(name = "idx_user_sessions_token_hash", columnList = "token_hash", unique = true),
+                @Index(name = "idx_user_sessions_user", columnList = "user_id"),
+                @Index(name = "idx_user_sessions_expires_at", columnList = "expires_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserSessions extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private Users user;
+
+    /** SHA-256(token) hex — tokenning o'zi hech qachon saqlanmaydi */
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    /** Sliding muddat: faollikda uzayadi, lekin absolute_expires_at dan oshmaydi */
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "absolute_expires_at", nullable = false)
+    private LocalDateTime absoluteExpiresAt;
+
+    @Column(name = "last_seen_at", nullable = false)
+    private LocalDateTime lastSeenAt;
+
+    @Column(name = "user_agent", length = 255)
+    private String userAgent;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+}
@@ -37,4 +37,9 @@ public class Users extends BaseEntity {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Role role = Role.USER;
+
+    /** Imzolangan tokenlar versiyasi (oshirilsa eski tokenlar bekor bo'ladi) */
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer tokenVersion = 0;
 }
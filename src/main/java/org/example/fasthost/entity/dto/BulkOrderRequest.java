@@ -0,0 +1,13 @@
+package org.example.fasthost.entity.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkOrderRequest {
+
+    private List<OrderCreateRequest> items;
+}
@@ -0,0 +1,14 @@
+package org.example.fasthost.entity.dto;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) sahifa: keyingi sahifa uchun shaffof kursor bilan.
+ * nextCursor == null — oxirgi sahifa.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
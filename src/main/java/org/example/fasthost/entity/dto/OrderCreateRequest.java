@@ -9,7 +9,9 @@ import org.antlr.v4.runtime.misc.NotNull;
 @Setter
 public class OrderCreateRequest {
 
-    private Long tariffId;
+    private Integer tariffId;
 
     private Integer durationDays;
+
+    private String domainName;
 }
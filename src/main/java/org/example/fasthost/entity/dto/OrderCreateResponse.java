@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class OrderCreateResponse {
 
-    private Long orderId;
+    private Integer orderId;
 
     private BigDecimal totalPrice;
 
@@ -21,4 +21,7 @@ public class OrderCreateResponse {
     private LocalDateTime endTime;
 
     private Integer durationDays;
+
+    /** To'lov sahifasi. paymentId — faqat havola; to'lov isboti imzolangan callback */
+    private String paymentUrl;
 }
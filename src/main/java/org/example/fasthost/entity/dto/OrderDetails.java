@@ -0,0 +1,51 @@
+package org.example.fasthost.entity.dto;
+
+import org.example.fasthost.entity.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Buyurtma tafsilotlari (sahifa va API uchun): tarif bilan bitta JOIN so'rovda.
+ * Foydalanuvchi, balans va parol hash'i bu yerga kirmaydi.
+ */
+public record OrderDetails(Integer id,
+                           OrderStatus status,
+                           TariffInfo tariff,
+                           Integer durationDays,
+                           BigDecimal totalPrice,
+                           String domainName,
+                           String login,
+                           LocalDateTime startTime,
+                           LocalDateTime endTime,
+                           LocalDateTime createTime) {
+
+    // JPQL constructor expression uchun (tekis ustunlar)
+    public OrderDetails(Integer id,
+                        OrderStatus status,
+                        Integer tariffId,
+                        String tariffName,
+                        Integer limitQuota,
+                        Integer limitMemory,
+                        Boolean unlimitedTraffic,
+                        Integer trafficLimit,
+                        Integer durationDays,
+                        BigDecimal totalPrice,
+                        String domainName,
+                        String login,
+                        LocalDateTime startTime,
+                        LocalDateTime endTime,
+                        LocalDateTime createTime) {
+        this(id, status, new TariffInfo(tariffId, tariffName, limitQuota, limitMemory, unlimitedTraffic, trafficLimit),
+                durationDays, totalPrice, domainName, login, startTime, endTime, createTime);
+    }
+
+    // id — uzaytirish narxi uchun (/hosting/quote)
+    public record TariffInfo(Integer id,
+                             String name,
+                             Integer limitQuota,
+                             Integer limitMemory,
+                             Boolean unlimitedTraffic,
+                             Integer trafficLimit) {
+    }
+}
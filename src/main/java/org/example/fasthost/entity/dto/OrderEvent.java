@@ -0,0 +1,21 @@
+package org.example.fasthost.entity.dto;
+
+import org.example.fasthost.entity.enums.OrderEventType;
+import org.example.fasthost.entity.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload'i. EXPIRED hodisasida faqat id'lar, holat va vaqt bor
+ * (bulk UPDATE'dan keyin entity yuklanmaydi).
+ */
+public record OrderEvent(Integer orderId,
+                         Integer userId,
+                         OrderEventType type,
+                         OrderStatus status,
+                         Integer durationDays,
+                         BigDecimal totalPrice,
+                         LocalDateTime endTime,
+                         LocalDateTime occurredAt) {
+}
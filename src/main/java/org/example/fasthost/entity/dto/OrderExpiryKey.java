@@ -0,0 +1,9 @@
+package org.example.fasthost.entity.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Expiry keyset kursori: (end_time, id).
+ */
+public record OrderExpiryKey(Integer id, LocalDateTime endTime) {
+}
@@ -0,0 +1,21 @@
+package org.example.fasthost.entity.dto;
+
+import org.example.fasthost.entity.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Buyurtmalar ro'yxati qatori (sahifa va API uchun).
+ * order_summaries'dan to'g'ridan-to'g'ri projection — entity yaratilmaydi.
+ */
+public record OrderListItem(Integer orderId,
+                            String tariffName,
+                            OrderStatus status,
+                            Integer durationDays,
+                            BigDecimal totalPrice,
+                            String domainName,
+                            LocalDateTime startTime,
+                            LocalDateTime endTime,
+                            LocalDateTime createTime) {
+}
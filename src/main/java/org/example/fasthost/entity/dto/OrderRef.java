@@ -0,0 +1,7 @@
+package org.example.fasthost.entity.dto;
+
+/**
+ * Buyurtma va uning egasi (bulk o'zgarishlardan keyin hodisa yozish uchun).
+ */
+public record OrderRef(Integer id, Integer userId) {
+}
@@ -0,0 +1,9 @@
+package org.example.fasthost.entity.dto;
+
+import org.example.fasthost.entity.enums.OrderStatus;
+
+/**
+ * Holat bo'yicha buyurtmalar soni (metrikalar uchun).
+ */
+public record OrderStatusCount(OrderStatus status, Long count) {
+}
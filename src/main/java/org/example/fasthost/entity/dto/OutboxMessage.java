@@ -0,0 +1,16 @@
+package org.example.fasthost.entity.dto;
+
+import org.example.fasthost.entity.enums.OrderEventType;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sink'larga yetkaziladigan xabar. Yetkazish kamida bir marta: iste'molchi
+ * takrorlarni {@code id} bo'yicha tashlab yuborishi kerak.
+ */
+public record OutboxMessage(Integer id,
+                            Integer orderId,
+                            OrderEventType type,
+                            String payload,
+                            LocalDateTime createdAt) {
+}
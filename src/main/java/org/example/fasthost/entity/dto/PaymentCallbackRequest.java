@@ -0,0 +1,7 @@
+package org.example.fasthost.entity.dto;
+
+/**
+ * To'lov provayderi callback'i tanasi: {@code {"paymentId":"..."}}.
+ */
+public record PaymentCallbackRequest(String paymentId) {
+}
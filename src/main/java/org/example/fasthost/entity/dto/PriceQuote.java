@@ -0,0 +1,10 @@
+package org.example.fasthost.entity.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Tarif narxi: buyurtma yaratmasdan ko'rsatish uchun.
+ * discountPercent — muddat pog'onasi bo'yicha chegirma (0, 5, 10, 15).
+ */
+public record PriceQuote(Integer tariffId, int days, int discountPercent, BigDecimal total) {
+}
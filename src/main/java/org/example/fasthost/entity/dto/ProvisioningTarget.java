@@ -0,0 +1,13 @@
+package org.example.fasthost.entity.dto;
+
+import org.example.fasthost.entity.enums.OrderStatus;
+
+/**
+ * Provisioning uchun buyurtmadan kerakli maydonlar (entity yuklanmaydi).
+ */
+public record ProvisioningTarget(Integer orderId,
+                                 Integer tariffId,
+                                 OrderStatus status,
+                                 String login,
+                                 String domainName) {
+}
@@ -14,6 +14,19 @@ public class Response<T> {
     private String message;
     private T data;
 
+    public static <T> Response<T> success(T data) {
+        return Response.<T>builder()
+                .success(true)
+                .data(data)
+                .build();
+    }
+
+    public static <T> Response<T> success() {
+        return Response.<T>builder()
+                .success(true)
+                .build();
+    }
+
     public static <T> Response<T> error(String message) {
         return Response.<T>builder()
                 .success(false)
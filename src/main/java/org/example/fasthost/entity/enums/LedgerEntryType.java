@@ -0,0 +1,9 @@
+package org.example.fasthost.entity.enums;
+
+public enum LedgerEntryType {
+    OPENING_BALANCE, // ledger paydo bo'lishidan oldingi balans
+    TOPUP,           // hisobni to'ldirish
+    ORDER_PURCHASE,  // yangi buyurtma
+    ORDER_EXTEND,    // buyurtmani uzaytirish
+    REFUND           // bekor qilingan buyurtma uchun qaytarish
+}
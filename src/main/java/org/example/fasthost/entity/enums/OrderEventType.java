@@ -0,0 +1,9 @@
+package org.example.fasthost.entity.enums;
+
+public enum OrderEventType {
+    CREATED,    // buyurtma yaratildi (PENDING)
+    ACTIVATED,  // to'lov tasdiqlandi
+    EXTENDED,   // muddat uzaytirildi
+    CANCELED,   // bekor qilindi
+    EXPIRED     // muddati tugadi
+}
@@ -0,0 +1,8 @@
+package org.example.fasthost.entity.enums;
+
+public enum PaymentCallbackStatus {
+    RECEIVED,   // qabul qilindi, hali qo'llanmagan
+    APPLIED,    // buyurtma faollashtirildi (yoki allaqachon faol edi)
+    REJECTED,   // buyurtma topilmadi yoki to'lov kutmayapti
+    FAILED      // max-attempts marta xato bilan tugadi, qo'lda ko'rib chiqiladi
+}
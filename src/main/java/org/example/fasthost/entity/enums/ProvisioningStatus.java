@@ -0,0 +1,9 @@
+package org.example.fasthost.entity.enums;
+
+public enum ProvisioningStatus {
+    QUEUED,       // navbatda (yoki keyingi urinishni kutmoqda)
+    IN_PROGRESS,  // worker'da
+    DONE,         // hosting akkaunti yaratildi, credential'lar yozildi
+    SKIPPED,      // buyurtma endi faol emas (bekor qilingan / muddati tugagan)
+    FAILED        // urinishlar tugadi — qo'lda ko'rib chiqiladi
+}
@@ -0,0 +1,22 @@
+package org.example.fasthost.repository;
+
+import org.example.fasthost.entity.BalanceLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedger, Integer> {
+
+    // Tekshirish (reconcile) uchun: jurnal bo'yicha haqiqiy balans
+    @Query("SELECT COALESCE(SUM(l.amount), 0) FROM BalanceLedger l WHERE l.userId = :userId")
+    BigDecimal sumByUserId(Integer userId);
+
+    // Berilganlardan jurnalda yozuvi borlar (boshlang'ich yozuvni hisoblash uchun)
+    @Query("SELECT DISTINCT l.userId FROM BalanceLedger l WHERE l.userId IN :userIds")
+    List<Integer> findUserIdsWithEntries(Collection<Integer> userIds);
+}
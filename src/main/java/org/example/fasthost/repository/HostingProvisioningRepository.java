@@ -0,0 +1,76 @@
+package org.example.fasthost.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.fasthost.entity.HostingProvisioning;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HostingProvisioningRepository extends JpaRepository<HostingProvisioning, Integer> {
+
+    // Dedupe: 1 — navbatga qo'yildi, 0 — avval qo'yilgan.
+    // Parallel qo'yishda yutqazgan INSERT PK xatosini oladi — chaqiruvchi "avval qo'yilgan" deb hisoblaydi
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO hosting_provisioning (order_id, status, attempts, next_attempt_time, queued_time) " +
+            "SELECT :orderId, 'QUEUED', 0, :now, :now " +
+            "WHERE NOT EXISTS (SELECT 1 FROM hosting_provisioning p WHERE p.order_id = :orderId)",
+            nativeQuery = true)
+    int insertIfAbsent(Integer orderId, LocalDateTime now);
+
+    // Bu xizmatdan oldin faollashgan va hali credential'i yo'q buyurtmalar
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO hosting_provisioning (order_id, status, attempts, next_attempt_time, queued_time) " +
+            "SELECT o.id, 'QUEUED', 0, :now, :now FROM orders o " +
+            "WHERE o.status = 'ACTIVE' AND o.password_hash = :placeholder " +
+            "AND NOT EXISTS (SELECT 1 FROM hosting_provisioning p WHERE p.order_id = o.id)",
+            nativeQuery = true)
+    int backfillActive(String placeholder, LocalDateTime now);
+
+    // Vaqti kelganlar, idx_hosting_provisioning_due
+    @Query("SELECT p.orderId FROM HostingProvisioning p " +
+            "WHERE p.status = 'QUEUED' AND p.nextAttemptTime <= :now ORDER BY p.nextAttemptTime")
+    List<Integer> findDue(LocalDateTime now, Limit limit);
+
+    // Faqat hali QUEUED'lar: parallel instance olganlari bu instance'ga o'tmaydi
+    @Transactional
+    @Modifying
+    @Query("UPDATE HostingProvisioning p SET p.status = 'IN_PROGRESS', p.owner = :owner, p.leaseUntil = :leaseUntil " +
+            "WHERE p.orderId IN :orderIds AND p.status = 'QUEUED'")
+    int claim(Collection<Integer> orderIds, String owner, LocalDateTime leaseUntil);
+
+    // claim() shu instance'ga bergan qatorlar — faqat ular qayta ishlanadi
+    @Query("SELECT p.orderId FROM HostingProvisioning p " +
+            "WHERE p.orderId IN :orderIds AND p.status = 'IN_PROGRESS' AND p.owner = :owner")
+    List<Integer> findOwned(Collection<Integer> orderIds, String owner);
+
+    // Natijani yozishdan oldin: hali ham shu instance'niki bo'lganlar qulflanadi
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM HostingProvisioning p " +
+            "WHERE p.orderId IN :orderIds AND p.status = 'IN_PROGRESS' AND p.owner = :owner")
+    List<HostingProvisioning> lockOwned(Collection<Integer> orderIds, String owner);
+
+    // To'xtagan instance'da qolib ketganlar (lease muddati o'tgan)
+    @Transactional
+    @Modifying
+    @Query("UPDATE HostingProvisioning p SET p.status = 'QUEUED', p.owner = NULL, p.leaseUntil = NULL " +
+            "WHERE p.status = 'IN_PROGRESS' AND p.leaseUntil < :now")
+    int releaseExpired(LocalDateTime now);
+
+    // Natijani yozib bo'lmagan paket — keyingi tsiklda qayta olinadi (faqat o'zimizniki)
+    @Transactional
+    @Modifying
+    @Query("UPDATE HostingProvisioning p SET p.status = 'QUEUED', p.owner = NULL, p.leaseUntil = NULL " +
+            "WHERE p.orderId IN :orderIds AND p.status = 'IN_PROGRESS' AND p.owner = :owner")
+    int release(Collection<Integer> orderIds, String owner);
+}
@@ -0,0 +1,36 @@
+package org.example.fasthost.repository;
+
+import org.example.fasthost.entity.Leases;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LeasesRepository extends JpaRepository<Leases, String> {
+
+    // Birinchi marta: 1 — lease yaratildi va shu egada, 0 — qator allaqachon bor
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO leases (name, owner, lease_until) " +
+            "SELECT :name, :owner, :until " +
+            "WHERE NOT EXISTS (SELECT 1 FROM leases l WHERE l.name = :name)",
+            nativeQuery = true)
+    int insertIfAbsent(String name, String owner, LocalDateTime until);
+
+    // O'zimizniki — uzaytiriladi, muddati o'tgan begonasi — olinadi
+    @Transactional
+    @Modifying
+    @Query("UPDATE Leases l SET l.owner = :owner, l.leaseUntil = :until " +
+            "WHERE l.name = :name AND (l.owner = :owner OR l.leaseUntil < :now)")
+    int acquire(String name, String owner, LocalDateTime now, LocalDateTime until);
+
+    // To'xtashda: keyingi egasi muddat tugashini kutmaydi
+    @Transactional
+    @Modifying
+    @Query("UPDATE Leases l SET l.leaseUntil = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(String name, String owner, LocalDateTime now);
+}
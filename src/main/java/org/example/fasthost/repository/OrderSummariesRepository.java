@@ -0,0 +1,62 @@
+package org.example.fasthost.repository;
+
+import jakarta.persistence.QueryHint;
+import org.example.fasthost.entity.OrderSummaries;
+import org.example.fasthost.entity.dto.OrderListItem;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface OrderSummariesRepository extends JpaRepository<OrderSummaries, Integer> {
+
+    String LIST_ITEM = "SELECT new org.example.fasthost.entity.dto.OrderListItem(" +
+            "s.orderId, s.tariffName, s.status, s.durationDays, s.totalPrice, s.domainName, " +
+            "s.startTime, s.endTime, s.createTime) FROM OrderSummaries s ";
+
+    // Foydalanuvchi buyurtmalari: birinchi sahifa (idx_order_summaries_user_created)
+    @Query(LIST_ITEM + "WHERE s.userId = :userId ORDER BY s.createTime DESC, s.orderId DESC")
+    List<OrderListItem> findFirstPage(Integer userId, Limit limit);
+
+    // Keyingi sahifa: (create_time, order_id) kursoridan keyin
+    @Query(LIST_ITEM + "WHERE s.userId = :userId " +
+            "AND (s.createTime < :createTime OR (s.createTime = :createTime AND s.orderId < :orderId)) " +
+            "ORDER BY s.createTime DESC, s.orderId DESC")
+    List<OrderListItem> findPageAfter(Integer userId, LocalDateTime createTime, Integer orderId, Limit limit);
+
+    // Eksport: butun hisob, JDBC cursor bilan bo'lak-bo'lak (tranzaksiya ichida o'qiladi va yopiladi)
+    @Query(LIST_ITEM + "WHERE s.userId = :userId ORDER BY s.createTime DESC, s.orderId DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<OrderListItem> streamByUserId(Integer userId);
+
+    // OrdersRepository.expireByIds bilan bir xil shart — ikkalasi bir tranzaksiyada
+    @Modifying
+    @Query("UPDATE OrderSummaries s SET s.status = 'EXPIRED' " +
+            "WHERE s.orderId IN :ids AND s.status = 'ACTIVE' AND s.endTime < :now")
+    int expireByIds(List<Integer> ids, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OrderSummaries s SET s.status = 'CANCELED' " +
+            "WHERE s.orderId IN :ids AND s.status = 'PENDING'")
+    int cancelByIds(List<Integer> ids);
+
+    // Read model paydo bo'lishidan oldingi buyurtmalar uchun
+    @Modifying
+    @Query(value = "INSERT INTO order_summaries " +
+            "(order_id, user_id, tariff_id, tariff_name, status, duration_days, total_price, " +
+            " domain_name, start_time, end_time, create_time) " +
+            "SELECT o.id, o.user_id, o.tariff_id, t.name, o.status, o.duration_days, o.total_price, " +
+            " o.domain_name, o.start_time, o.end_time, o.create_time " +
+            "FROM orders o JOIN tariffs t ON t.id = o.tariff_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM order_summaries s WHERE s.order_id = o.id)",
+            nativeQuery = true)
+    int backfillMissing();
+}
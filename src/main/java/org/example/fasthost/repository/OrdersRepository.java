@@ -1,39 +1,125 @@
 package org.example.fasthost.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.fasthost.entity.Orders;
 import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.dto.OrderDetails;
+import org.example.fasthost.entity.dto.OrderExpiryKey;
+import org.example.fasthost.entity.dto.OrderRef;
+import org.example.fasthost.entity.dto.OrderStatusCount;
+import org.example.fasthost.entity.dto.ProvisioningTarget;
 import org.example.fasthost.entity.enums.OrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrdersRepository extends JpaRepository<Orders, Integer> {
 
-    // Foydalanuvchining barcha buyurtmalarini olish
-    List<Orders> findByUserOrderByCreateTimeDesc(Users user);
-
     // Foydalanuvchining faol buyurtmalarini olish
     List<Orders> findByUserAndStatus(Users user, OrderStatus status);
 
-    // Muddati tugagan buyurtmalarni topish
-    @Query("SELECT o FROM Orders o WHERE o.endTime < :now AND o.status = 'ACTIVE'")
-    List<Orders> findExpiredOrders(LocalDateTime now);
+    // Muddati tugagan buyurtmalar: keyset (end_time, id) bo'yicha bo'lak, idx_orders_end_time ishlatiladi
+    @Query("SELECT new org.example.fasthost.entity.dto.OrderExpiryKey(o.id, o.endTime) FROM Orders o " +
+            "WHERE o.status = 'ACTIVE' AND o.endTime < :now " +
+            "AND (o.endTime > :afterEndTime OR (o.endTime = :afterEndTime AND o.id > :afterId)) " +
+            "ORDER BY o.endTime, o.id")
+    List<OrderExpiryKey> findExpiredChunk(LocalDateTime now, LocalDateTime afterEndTime, Integer afterId, Limit limit);
+
+    // Barcha faol buyurtmalar (timing wheel'ni qayta qurish uchun), keyset bo'yicha
+    @Query("SELECT new org.example.fasthost.entity.dto.OrderExpiryKey(o.id, o.endTime) FROM Orders o " +
+            "WHERE o.status = 'ACTIVE' " +
+            "AND (o.endTime > :afterEndTime OR (o.endTime = :afterEndTime AND o.id > :afterId)) " +
+            "ORDER BY o.endTime, o.id")
+    List<OrderExpiryKey> findActiveChunk(LocalDateTime afterEndTime, Integer afterId, Limit limit);
+
+    // Shartli bulk update: faqat hali ham ACTIVE va muddati o'tganlar
+    @Modifying
+    @Query("UPDATE Orders o SET o.status = 'EXPIRED', o.updateTime = :now " +
+            "WHERE o.id IN :ids AND o.status = 'ACTIVE' AND o.endTime < :now")
+    int expireByIds(List<Integer> ids, LocalDateTime now);
+
+    // expireByIds'dan oldin shu tranzaksiyada: qulflangan qatorlar — aynan UPDATE o'zgartiradiganlar
+    // (parallel uzaytirish/to'lov commit'gacha kutadi), outbox hodisalari shular uchun yoziladi
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new org.example.fasthost.entity.dto.OrderRef(o.id, o.user.id) FROM Orders o " +
+            "WHERE o.id IN :ids AND o.status = 'ACTIVE' AND o.endTime < :now ORDER BY o.id")
+    List<OrderRef> lockExpiring(List<Integer> ids, LocalDateTime now);
+
+    // To'lanmay qolgan buyurtmalar: id bo'yicha keyset, idx_orders_status
+    @Query("SELECT o.id FROM Orders o " +
+            "WHERE o.status = 'PENDING' AND o.createTime < :before AND o.id > :afterId ORDER BY o.id")
+    List<Integer> findStalePendingChunk(LocalDateTime before, Integer afterId, Limit limit);
+
+    // Shartli bulk update: shu orada to'langanlar tegilmaydi
+    @Modifying
+    @Query("UPDATE Orders o SET o.status = 'CANCELED', o.updateTime = :now " +
+            "WHERE o.id IN :ids AND o.status = 'PENDING' AND o.createTime < :before")
+    int cancelStaleByIds(List<Integer> ids, LocalDateTime before, LocalDateTime now);
+
+    // cancelStaleByIds'dan oldin shu tranzaksiyada (lockExpiring bilan bir xil usul)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new org.example.fasthost.entity.dto.OrderRef(o.id, o.user.id) FROM Orders o " +
+            "WHERE o.id IN :ids AND o.status = 'PENDING' AND o.createTime < :before ORDER BY o.id")
+    List<OrderRef> lockStalePending(List<Integer> ids, LocalDateTime before);
+
+    // Uzaytirish: hisob bazada, bitta shartli UPDATE (read-modify-write yo'q). Qator lock'i
+    // parallel uzaytirishlarni ketma-ket qiladi — ikkinchisi birinchining natijasi ustiga qo'shadi
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Orders o SET o.endTime = o.endTime + :days day, o.durationDays = o.durationDays + :days, " +
+            "o.totalPrice = o.totalPrice + :price, o.updateTime = :now " +
+            "WHERE o.id = :id AND o.user.id = :userId AND o.status = 'ACTIVE'")
+    int extendActive(Integer id, Integer userId, int days, BigDecimal price, LocalDateTime now);
+
+    // Provisioning worker'i uchun: bitta IN so'rov, entity yuklanmaydi
+    @Query("SELECT new org.example.fasthost.entity.dto.ProvisioningTarget(" +
+            "o.id, o.tariff.id, o.status, o.login, o.domainName) " +
+            "FROM Orders o WHERE o.id IN :ids")
+    List<ProvisioningTarget> findProvisioningTargets(Collection<Integer> ids);
+
+    @Modifying
+    @Query("UPDATE Orders o SET o.login = :login, o.passwordHash = :passwordHash, o.updateTime = :now " +
+            "WHERE o.id = :id")
+    int updateCredentials(Integer id, String login, String passwordHash, LocalDateTime now);
+
+    // Eng so'nggi generator login'i (host_ + 13 belgi): vaqt tartibida, idx_orders_login
+    @Query("SELECT MAX(o.login) FROM Orders o WHERE o.login LIKE :prefix AND LENGTH(o.login) = :length")
+    Optional<String> findLatestLogin(String prefix, int length);
 
     // Foydalanuvchining faol hostinglarini sanash
     long countByUserAndStatus(Users user, OrderStatus status);
 
+    // Tafsilotlar: tarif bilan bitta JOIN, egasi shartda — begona buyurtma "topilmadi" bo'ladi
+    @Query("SELECT new org.example.fasthost.entity.dto.OrderDetails(" +
+            "o.id, o.status, t.id, t.name, t.limitQuota, t.limitMemory, t.unlimitedTraffic, t.trafficLimit, " +
+            "o.durationDays, o.totalPrice, o.domainName, o.login, o.startTime, o.endTime, o.createTime) " +
+            "FROM Orders o JOIN o.tariff t WHERE o.id = :id AND o.user.id = :userId")
+    Optional<OrderDetails> findDetails(Integer id, Integer userId);
+
     // Payment ID orqali topish
     Optional<Orders> findByPaymentId(String paymentId);
 
+    // To'lov callback'lari paketi uchun: bitta IN so'rov
+    List<Orders> findByPaymentIdIn(Collection<String> paymentIds);
+
     // Domen nomi orqali topish
     Optional<Orders> findByDomainName(String domainName);
 
     // Oxirgi N kunlik buyurtmalar
     @Query("SELECT o FROM Orders o WHERE o.createTime >= :fromDate ORDER BY o.createTime DESC")
     List<Orders> findRecentOrders(LocalDateTime fromDate);
-}
\ No newline at end of file
+
+    // Metrikalar: holat bo'yicha buyurtmalar soni
+    @Query("SELECT new org.example.fasthost.entity.dto.OrderStatusCount(o.status, COUNT(o)) " +
+            "FROM Orders o GROUP BY o.status")
+    List<OrderStatusCount> countByStatus();
+}
@@ -0,0 +1,34 @@
+package org.example.fasthost.repository;
+
+import org.example.fasthost.entity.OutboxEvents;
+import org.example.fasthost.entity.dto.OutboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventsRepository extends JpaRepository<OutboxEvents, Integer> {
+
+    // Yetkazilmaganlar baza bergan seq tartibida (idx_outbox_events_unpublished)
+    @Query("SELECT new org.example.fasthost.entity.dto.OutboxMessage(e.id, e.orderId, e.type, e.payload, e.createTime) " +
+            "FROM OutboxEvents e WHERE e.publishedTime IS NULL ORDER BY e.seq")
+    List<OutboxMessage> findUnpublished(Limit limit);
+
+    long countByPublishedTimeIsNull();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvents e SET e.publishedTime = :now WHERE e.id IN :ids")
+    int markPublished(List<Integer> ids, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvents e WHERE e.publishedTime < :before")
+    int deletePublishedBefore(LocalDateTime before);
+}
@@ -0,0 +1,57 @@
+package org.example.fasthost.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.fasthost.entity.PaymentCallbacks;
+import org.example.fasthost.entity.enums.PaymentCallbackStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PaymentCallbacksRepository extends JpaRepository<PaymentCallbacks, String> {
+
+    // Dedupe: 1 — yangi callback, 0 — avval qabul qilingan (o'z tranzaksiyasida, darhol commit).
+    // Parallel bir xil callback'da yutqazgan INSERT PK xatosini oladi — chaqiruvchi takror deb hisoblaydi
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO payment_callbacks (payment_id, status, received_time, attempts) " +
+            "SELECT :paymentId, 'RECEIVED', :now, 0 " +
+            "WHERE NOT EXISTS (SELECT 1 FROM payment_callbacks WHERE payment_id = :paymentId)",
+            nativeQuery = true)
+    int insertIfAbsent(String paymentId, LocalDateTime now);
+
+    // Qo'llanmay qolganlar (navbat to'lgan yoki jarayon to'xtagan), idx_payment_callbacks_status
+    @Query("SELECT c.paymentId FROM PaymentCallbacks c " +
+            "WHERE c.status = 'RECEIVED' AND c.receivedTime < :before ORDER BY c.receivedTime")
+    List<String> findReceivedBefore(LocalDateTime before, Limit limit);
+
+    // Paketni qo'llashdan oldin: hali RECEIVED qatorlar qulflanadi (SELECT ... FOR UPDATE).
+    // Boshqa worker yoki instance shu callback'ni allaqachon qo'llagan bo'lsa, u ro'yxatda bo'lmaydi
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM PaymentCallbacks c WHERE c.paymentId IN :paymentIds AND c.status = 'RECEIVED'")
+    List<PaymentCallbacks> lockReceived(Collection<String> paymentIds);
+
+    @Modifying
+    @Query("UPDATE PaymentCallbacks c SET c.status = :status, c.processedTime = :now " +
+            "WHERE c.paymentId IN :paymentIds AND c.status = 'RECEIVED'")
+    int markProcessed(Collection<String> paymentIds, PaymentCallbackStatus status, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE PaymentCallbacks c SET c.attempts = c.attempts + 1 " +
+            "WHERE c.paymentId IN :paymentIds AND c.status = 'RECEIVED'")
+    int incrementAttempts(Collection<String> paymentIds);
+
+    // Chegaraga yetganlar recover()'ga qaytmaydi
+    @Modifying
+    @Query("UPDATE PaymentCallbacks c SET c.status = 'FAILED', c.processedTime = :now " +
+            "WHERE c.paymentId IN :paymentIds AND c.status = 'RECEIVED' AND c.attempts >= :maxAttempts")
+    int markFailed(Collection<String> paymentIds, int maxAttempts, LocalDateTime now);
+}
@@ -0,0 +1,39 @@
+package org.example.fasthost.repository;
+
+import org.example.fasthost.entity.UserSessions;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface UserSessionsRepository extends JpaRepository<UserSessions, Integer> {
+
+    // Har bir so'rovdagi lookup: unique token_hash indeksi + user bitta so'rovda
+    @EntityGraph(attributePaths = "user")
+    Optional<UserSessions> findByTokenHash(String tokenHash);
+
+    // Sliding muddatni uzaytirish (entity yuklamasdan)
+    @Modifying
+    @Query("UPDATE UserSessions s SET s.lastSeenAt = :now, s.expiresAt = :expiresAt WHERE s.id = :id")
+    int touch(Integer id, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM UserSessions s WHERE s.tokenHash = :tokenHash")
+    int deleteByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("DELETE FROM UserSessions s WHERE s.user.id = :userId")
+    int deleteAllByUserId(Integer userId);
+
+    // Muddati o'tgan sessiyalarni bo'laklab o'chirish
+    @Modifying
+    @Query(value = "DELETE FROM user_sessions WHERE id IN " +
+            "(SELECT id FROM user_sessions WHERE expires_at < :now LIMIT :limit)",
+            nativeQuery = true)
+    int deleteExpiredBatch(LocalDateTime now, int limit);
+}
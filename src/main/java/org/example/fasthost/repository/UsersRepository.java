@@ -1,15 +1,58 @@
 package org.example.fasthost.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.fasthost.entity.Users;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UsersRepository extends JpaRepository<Users, Integer> {
-    Optional<Users> findByKey(String key);
     boolean existsByEmail(String email);
 
     Optional<Users> findByEmail(String email);
+
+    List<Users> findByTokenVersionGreaterThan(Integer version);
+
+    // Shartli yechish: balans manfiy bo'lib qolmasa, aks holda 0 qaytaradi
+    @Modifying
+    @Query("UPDATE Users u SET u.balance = u.balance - :amount WHERE u.id = :id AND u.balance >= :amount")
+    int debit(Integer id, BigDecimal amount);
+
+    @Modifying
+    @Query("UPDATE Users u SET u.balance = u.balance + :amount WHERE u.id = :id")
+    int credit(Integer id, BigDecimal amount);
+
+    // Bloklash: allaqachon bloklangan bo'lsa 0
+    @Modifying
+    @Query("UPDATE Users u SET u.isActive = false WHERE u.id = :id AND u.isActive = true")
+    int deactivate(Integer id);
+
+    // Ledger'dan oldingi balanslar: jurnalda hali yozuvi yo'q foydalanuvchilar, id bo'yicha keyset
+    @Query("SELECT u.id FROM Users u WHERE u.balance <> 0 AND u.id > :afterId " +
+            "AND NOT EXISTS (SELECT 1 FROM BalanceLedger l WHERE l.userId = u.id) ORDER BY u.id")
+    List<Integer> findOpeningBalanceCandidates(Integer afterId, Limit limit);
+
+    // Boshlang'ich yozuvdan oldin: parallel debit/credit shu tranzaksiya tugashini kutadi
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM Users u WHERE u.id IN :ids ORDER BY u.id")
+    List<Users> lockByIds(List<Integer> ids);
+
+    @Modifying
+    @Query("UPDATE Users u SET u.tokenVersion = :version WHERE u.id = :id")
+    int updateTokenVersion(Integer id, Integer version);
+
+    // Fonda rehash: orada parol o'zgargan bo'lsa eski hash ustiga yozilmaydi
+    @Transactional
+    @Modifying
+    @Query("UPDATE Users u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePassword(Integer id, String oldHash, String newHash);
 }
\ No newline at end of file
@@ -1,40 +1,48 @@
 package org.example.fasthost.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.example.fasthost.entity.Users;
 import org.example.fasthost.entity.dto.Response;
 import org.example.fasthost.repository.UsersRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UsersRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final HomeService homeService;
+    private final IdGenerator idGenerator;
+    private final AuthTokenCache authTokenCache;
+    private final SignedTokenService signedTokenService;
+    private final SessionService sessionService;
 
-    public Response<Void> sign_up(String name, String password, String email, HttpServletResponse response) {
+    public Response<Void> sign_up(String name, String password, String email,
+                                  HttpServletRequest request, HttpServletResponse response) {
 
         if (userRepository.existsByEmail(email)) {
             return Response.error("Email allaqachon ro'yxatdan o'tgan!");
         }
 
-        String encodedPassword = passwordEncoder.encode(password);
-        String token = homeService.generateToken();
+        // Pool band bo'lsa HashingBusyException -> 503 + Retry-After (AuthController)
+        String encodedPassword = passwordHashingService.hash(password);
+
         Users user = new Users();
         user.setName(name);
         user.setActive(true);
 
         user.setEmail(email);
         user.setPassword(encodedPassword);
-        user.setKey(token);
+        // users.key endi autentifikatsiyada ishlatilmaydi (sessiyalar user_sessions'da)
+        user.setKey(idGenerator.token());
         userRepository.save(user);
 
 
-        homeService.addAuthCookie(response, token);
+        homeService.addAuthCookie(response, cookieToken(user, request));
         return Response.<Void>builder()
                 .success(true)
                 .message("Ro'yxatdan o'tish muvaffaqiyatli!")
@@ -42,7 +50,8 @@ public class AuthService {
     }
 
 
-    public Response<Users> sign_in(String email, String password, HttpServletResponse response) {
+    public Response<Users> sign_in(String email, String password,
+                                   HttpServletRequest request, HttpServletResponse response) {
 
 
         Users user = userRepository.findByEmail(email).orElse(null);
@@ -51,13 +60,18 @@ public class AuthService {
             return Response.error("Email ro'yxatdan o'tmagan!");
         }
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             return Response.error("Parol noto'g'ri!");
         }
-        String token = homeService.generateToken();
-        user.setKey(token);
-        userRepository.save(user);
-        homeService.addAuthCookie(response, token);
+
+        // Imzolangan token faqat claim'lardan quriladi — bloklangan hisobga yangisi berilmasin
+        if (!user.isActive()) {
+            return Response.error("Hisob bloklangan");
+        }
+        passwordHashingService.rehashIfNeeded(user.getId(), password, user.getPassword());
+
+        // Har bir kirish yangi sessiya — boshqa qurilmalar chiqib ketmaydi
+        homeService.addAuthCookie(response, cookieToken(user, request));
         return Response.<Users>builder()
                 .success(true)
                 .message("Login successful!")
@@ -65,7 +79,49 @@ public class AuthService {
                 .build();
     }
 
-    public void logout(HttpServletResponse response) {
+    public void logout(HttpServletRequest request, HttpServletResponse response) {
+        String token = homeService.readAuthToken(request);
+
+        if (signedTokenService.isEnabled()) {
+            signedTokenService.verify(token)
+                    .ifPresent(claims -> signedTokenService.revoke(claims.userId()));
+        } else {
+            sessionService.revoke(token);
+            authTokenCache.invalidate(token);
+        }
         homeService.removeAuthCookie(response);
     }
+
+    /**
+     * Foydalanuvchini bloklaydi: barcha sessiyalar yopiladi, imzolangan tokenlar versiyasi
+     * oshiriladi, keshdagi principal commit'dan keyin o'chiriladi (TTL kutilmaydi).
+     */
+    @Transactional
+    public Response<Void> deactivate(Integer userId) {
+        if (userRepository.deactivate(userId) == 0) {
+            return Response.error(userRepository.existsById(userId)
+                    ? "Foydalanuvchi allaqachon bloklangan"
+                    : "Foydalanuvchi topilmadi");
+        }
+
+        sessionService.revokeAll(userId);
+        if (signedTokenService.isEnabled()) {
+            signedTokenService.revoke(userId);
+        }
+        authTokenCache.invalidateUserAfterCommit(userId);
+
+        return Response.<Void>builder()
+                .success(true)
+                .message("Foydalanuvchi bloklandi")
+                .build();
+    }
+
+    /**
+     * Cookie qiymati: imzolangan rejimda HMAC token, aks holda yangi sessiya tokeni.
+     */
+    private String cookieToken(Users user, HttpServletRequest request) {
+        return signedTokenService.isEnabled()
+                ? signedTokenService.issue(user)
+                : sessionService.create(user, request);
+    }
 }
@@ -0,0 +1,226 @@
+package org.example.fasthost.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.UsersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * AUTH_TOKEN -> foydalanuvchi keshi.
+ * <p>
+ * Har bir so'rov (filter + model advice) shu yerdan o'qiydi, shuning uchun
+ * bitta so'rovda bazaga ko'pi bilan bitta murojaat bo'ladi.
+ * Faqat mavjud sessiyalar keshlanadi: tasodifiy tokenlar keshni to'ldira olmaydi.
+ * Imzolangan token rejimida foydalanuvchi id bo'yicha keshlanadi.
+ * <p>
+ * Keshda entity emas, o'zgarmas {@link UserSnapshot} saqlanadi; har bir
+ * murojaat o'z {@link Users} nusxasini oladi — bir so'rovdagi o'zgarish
+ * boshqa so'rovlarga o'tmaydi.
+ * <p>
+ * userId -> tokenlar indeksi: foydalanuvchi bo'yicha tozalash (har bir balans
+ * o'zgarishida chaqiriladi) kesh hajmiga emas, shu foydalanuvchi sessiyalari
+ * soniga bog'liq. Indeks kesh yozuvi qo'shilishidan oldin to'ldiriladi va
+ * Caffeine o'zi chiqarib yuborgan (hajm, TTL) yozuvlar uchun tozalanadi.
+ */
+@Component
+@Slf4j
+public class AuthTokenCache implements MeterBinder {
+
+    private final UsersRepository usersRepository;
+    private final SessionService sessionService;
+    private final SignedTokenService signedTokenService;
+    private final Cache<String, CachedSession> byToken;
+    private final Cache<Integer, UserSnapshot> byId;
+    private final ConcurrentHashMap<Integer, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    public AuthTokenCache(UsersRepository usersRepository,
+                          SessionService sessionService,
+                          SignedTokenService signedTokenService,
+                          @Value("${app.auth-cache.max-size:10000}") long maxSize,
+                          @Value("${app.auth-cache.ttl:5m}") Duration ttl) {
+        this.usersRepository = usersRepository;
+        this.sessionService = sessionService;
+        this.signedTokenService = signedTokenService;
+        this.byToken = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .<String, CachedSession>evictionListener((token, session, cause) -> {
+                    if (token != null && session != null) {
+                        unindex(session.user().id(), token);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Token bo'yicha foydalanuvchini qaytaradi (keshda bo'lmasa sessiyani bazadan yuklaydi).
+     */
+    public Optional<Users> get(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        if (signedTokenService.isEnabled()) {
+            return signedTokenService.verify(token)
+                    .flatMap(claims -> getById(claims.userId()));
+        }
+
+        CachedSession cached = byToken.getIfPresent(token);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(LocalDateTime.now())) {
+                return Optional.of(cached.user().toUser());
+            }
+            invalidate(token);
+        }
+
+        Optional<SessionService.ActiveSession> loaded = sessionService.resolve(token);
+        if (loaded.isEmpty()) {
+            return Optional.empty();
+        }
+        UserSnapshot snapshot = UserSnapshot.of(loaded.get().user());
+        index(snapshot.id(), token);
+        byToken.put(token, new CachedSession(snapshot, loaded.get().expiresAt()));
+        return Optional.of(snapshot.toUser());
+    }
+
+    public Optional<Users> getById(Integer userId) {
+        UserSnapshot cached = byId.getIfPresent(userId);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+
+        Optional<UserSnapshot> loaded = usersRepository.findById(userId).map(UserSnapshot::of);
+        loaded.ifPresent(snapshot -> byId.put(userId, snapshot));
+        return loaded.map(UserSnapshot::toUser);
+    }
+
+    public void invalidate(String token) {
+        if (token == null) return;
+        CachedSession removed = byToken.asMap().remove(token);
+        if (removed != null) {
+            unindex(removed.user().id(), token);
+        }
+    }
+
+    /**
+     * Foydalanuvchining barcha yozuvlarini keshdan o'chiradi
+     * (bloklash, balans o'zgarishi va h.k.).
+     */
+    public void invalidateUser(Integer userId) {
+        if (userId == null) return;
+        byId.invalidate(userId);
+        Set<String> tokens = tokensByUser.remove(userId);
+        if (tokens != null) {
+            byToken.invalidateAll(tokens);
+        }
+    }
+
+    /**
+     * Tranzaksiya ichida: commit'dan keyin tozalaydi — parallel so'rov eski qiymatni
+     * commit'dan oldin qayta keshlab qo'ya olmaydi. Tranzaksiyasiz — darhol.
+     */
+    public void invalidateUserAfterCommit(Integer userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateUser(userId);
+                }
+            });
+        } else {
+            invalidateUser(userId);
+        }
+    }
+
+    private void index(Integer userId, String token) {
+        tokensByUser.compute(userId, (id, tokens) -> {
+            Set<String> result = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            result.add(token);
+            return result;
+        });
+    }
+
+    private void unindex(Integer userId, String token) {
+        tokensByUser.computeIfPresent(userId, (id, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byToken, "auth.token");
+        CaffeineCacheMetrics.monitor(registry, byId, "auth.user");
+    }
+
+    public CacheStats stats() {
+        return byToken.stats().plus(byId.stats());
+    }
+
+    public long size() {
+        return byToken.estimatedSize() + byId.estimatedSize();
+    }
+
+    /* =========================
+       SNAPSHOT
+       ========================= */
+
+    record CachedSession(UserSnapshot user, LocalDateTime expiresAt) {
+    }
+
+    /**
+     * Principal uchun kerakli maydonlar (parol hash'i va kalitsiz).
+     */
+    record UserSnapshot(Integer id,
+                        String name,
+                        String email,
+                        BigDecimal balance,
+                        boolean active,
+                        Role role,
+                        Integer tokenVersion,
+                        LocalDateTime createTime) {
+
+        static UserSnapshot of(Users user) {
+            return new UserSnapshot(user.getId(), user.getName(), user.getEmail(), user.getBalance(),
+                    user.isActive(), user.getRole(), user.getTokenVersion(), user.getCreateTime());
+        }
+
+        // Detached, faqat shu so'rovga tegishli nusxa
+        Users toUser() {
+            Users user = Users.builder()
+                    .name(name)
+                    .email(email)
+                    .balance(balance)
+                    .isActive(active)
+                    .role(role)
+                    .tokenVersion(tokenVersion)
+                    .build();
+            user.setId(id);
+            user.setCreateTime(createTime);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.fasthost.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.BalanceLedger;
+import org.example.fasthost.entity.Orders;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.LedgerEntryType;
+import org.example.fasthost.repository.BalanceLedgerRepository;
+import org.example.fasthost.repository.UsersRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Balans operatsiyalari: har bir o'zgarish — bitta shartli UPDATE (users.balance)
+ * va bitta jurnal yozuvi (balance_ledger), ikkalasi chaqiruvchi tranzaksiyasida.
+ * <p>
+ * Pessimistik lock yoki read-modify-write yo'q: bir vaqtdagi xaridlarda
+ * balans hech qachon manfiy bo'lmaydi, yutqazgan so'rov shunchaki {@code false} oladi.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceService {
+
+    private static final String BACKFILL_LEASE = "balance-opening-backfill";
+    private static final Duration BACKFILL_LEASE_TTL = Duration.ofMinutes(5);
+    private static final int BACKFILL_CHUNK = 500;
+
+    private final UsersRepository usersRepository;
+    private final BalanceLedgerRepository ledgerRepository;
+    private final AuthTokenCache authTokenCache;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Balansdan yechadi. Mablag' yetmasa hech narsa yozilmaydi va {@code false} qaytadi.
+     */
+    @Transactional
+    public boolean debit(Integer userId, BigDecimal amount, LedgerEntryType type, Integer orderId) {
+        // Bepul tarif: yechiladigan narsa yo'q, jurnalga nol yozuv qo'shilmaydi
+        if (isZero(amount)) {
+            return true;
+        }
+        requirePositive(amount);
+
+        if (usersRepository.debit(userId, amount) == 0) {
+            return false;
+        }
+
+        append(userId, amount.negate(), type, orderId);
+        return true;
+    }
+
+    /**
+     * To'lov tizimi orqali to'langan buyurtmalar: har biri uchun jurnalga TOPUP (+summa)
+     * va ORDER_PURCHASE (−summa) juftligi yoziladi (batch insert). Pul balansga kirmaydi
+     * va undan chiqmaydi — users.balance o'zgarmaydi, jurnal yig'indisi ham.
+     */
+    @Transactional
+    public void recordExternalPayments(List<Orders> orders) {
+        List<BalanceLedger> entries = new ArrayList<>(orders.size() * 2);
+        for (Orders order : orders) {
+            BigDecimal amount = order.getTotalPrice();
+            if (isZero(amount)) {
+                continue;
+            }
+            requirePositive(amount);
+
+            Integer userId = order.getUser().getId();
+            entries.add(BalanceLedger.builder()
+                    .userId(userId)
+                    .orderId(order.getId())
+                    .amount(amount)
+                    .type(LedgerEntryType.TOPUP)
+                    .build());
+            entries.add(BalanceLedger.builder()
+                    .userId(userId)
+                    .orderId(order.getId())
+                    .amount(amount.negate())
+                    .type(LedgerEntryType.ORDER_PURCHASE)
+                    .build());
+        }
+        ledgerRepository.saveAll(entries);
+    }
+
+    @Transactional
+    public void credit(Integer userId, BigDecimal amount, LedgerEntryType type, Integer orderId) {
+        if (isZero(amount)) {
+            return;
+        }
+        requirePositive(amount);
+
+        if (usersRepository.credit(userId, amount) == 0) {
+            throw new IllegalStateException("Foydalanuvchi topilmadi: " + userId);
+        }
+
+        append(userId, amount, type, orderId);
+    }
+
+    /**
+     * Keshlangan balans jurnal yig'indisiga mos kelishini tekshiradi.
+     */
+    @Transactional(readOnly = true)
+    public boolean reconcile(Integer userId) {
+        BigDecimal cached = usersRepository.findById(userId)
+                .map(user -> user.getBalance())
+                .orElse(BigDecimal.ZERO);
+        BigDecimal ledger = ledgerRepository.sumByUserId(userId);
+
+        boolean matches = cached.compareTo(ledger) == 0;
+        if (!matches) {
+            log.warn("Balans mos emas: user={}, cached={}, ledger={}", userId, cached, ledger);
+        }
+        return matches;
+    }
+
+    /**
+     * Ledger'dan oldingi balanslar uchun OPENING_BALANCE yozuvi (bir martalik ko'chirish).
+     * <p>
+     * Klasterda lease bilan bitta instance bajaradi, qolganlari darhol chiqadi. Hamma
+     * yozuvi bor bazada bu bitta bo'sh keyset so'rovi. Foydalanuvchiga ikkinchi boshlang'ich
+     * yozuv idx_balance_ledger_opening tufayli tushmaydi.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOpeningBalances() {
+        if (!leaseService.tryAcquire(BACKFILL_LEASE, BACKFILL_LEASE_TTL)) {
+            log.debug("Opening balance backfill skipped: another instance holds the lease");
+            return;
+        }
+        try {
+            Integer afterId = 0;
+            long inserted = 0;
+            while (true) {
+                List<Integer> ids = usersRepository.findOpeningBalanceCandidates(afterId, Limit.of(BACKFILL_CHUNK));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer count = transactionTemplate.execute(status -> appendOpeningBalances(ids));
+                inserted += count == null ? 0 : count;
+                afterId = ids.get(ids.size() - 1);
+
+                if (ids.size() < BACKFILL_CHUNK || !leaseService.tryAcquire(BACKFILL_LEASE, BACKFILL_LEASE_TTL)) {
+                    break;
+                }
+            }
+            if (inserted > 0) {
+                log.info("Opening balance ledger entries created: {}", inserted);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Lease muddati o'tib, boshqa instance ham yozgan — unique indeks ikkinchisini to'xtatdi
+            log.warn("Opening balance backfill stopped on a duplicate entry, will resume on next start", e);
+        } finally {
+            leaseService.release(BACKFILL_LEASE);
+        }
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private int appendOpeningBalances(List<Integer> userIds) {
+        List<Users> users = usersRepository.lockByIds(userIds);
+        // Kandidat tanlangandan keyin commit bo'lgan harakatlar: ular jurnalda bor, ayiriladi
+        Set<Integer> moved = new HashSet<>(ledgerRepository.findUserIdsWithEntries(userIds));
+
+        List<BalanceLedger> entries = new ArrayList<>(users.size());
+        for (Users user : users) {
+            BigDecimal opening = moved.contains(user.getId())
+                    ? user.getBalance().subtract(ledgerRepository.sumByUserId(user.getId()))
+                    : user.getBalance();
+            if (opening.signum() == 0) {
+                continue;
+            }
+            entries.add(BalanceLedger.builder()
+                    .userId(user.getId())
+                    .openingUserId(user.getId())
+                    .amount(opening)
+                    .type(LedgerEntryType.OPENING_BALANCE)
+                    .build());
+        }
+        ledgerRepository.saveAll(entries);
+        return entries.size();
+    }
+
+    private void append(Integer userId, BigDecimal amount, LedgerEntryType type, Integer orderId) {
+        ledgerRepository.save(BalanceLedger.builder()
+                .userId(userId)
+                .orderId(orderId)
+                .amount(amount)
+                .type(type)
+                .build());
+        // Keshdagi principal eski balansni ko'rsatmasin
+        authTokenCache.invalidateUserAfterCommit(userId);
+    }
+
+    private static boolean isZero(BigDecimal amount) {
+        return amount != null && amount.signum() == 0;
+    }
+
+    private static void requirePositive(BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("Summa musbat bo'lishi kerak: " + amount);
+        }
+    }
+}
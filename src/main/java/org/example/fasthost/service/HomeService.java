@@ -1,12 +1,11 @@
 package org.example.fasthost.service;
 
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.UUID;
-
 @Service
 public class HomeService {
 
@@ -43,7 +42,15 @@ public class HomeService {
         response.addCookie(cookie);
     }
 
-    public String generateToken() {
-        return UUID.randomUUID().toString();
+    public String readAuthToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return null;
+
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
     }
 }
\ No newline at end of file
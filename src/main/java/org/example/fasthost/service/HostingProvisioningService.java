@@ -0,0 +1,457 @@
+package org.example.fasthost.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.HostingProvisioning;
+import org.example.fasthost.entity.dto.OutboxMessage;
+import org.example.fasthost.entity.dto.ProvisioningTarget;
+import org.example.fasthost.entity.enums.OrderEventType;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.ProvisioningStatus;
+import org.example.fasthost.repository.HostingProvisioningRepository;
+import org.example.fasthost.repository.OrdersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * To'langan buyurtmalar uchun hosting akkauntlarini yaratadi.
+ * <p>
+ * Navbat — hosting_provisioning jadvali: ACTIVATED outbox hodisasi kelganda
+ * qator qo'shiladi. Bitta dispatcher thread vaqti kelgan qatorlarni paket bilan
+ * oladi (IN_PROGRESS, owner — shu instance, {@code lease} muddatiga) va faqat
+ * haqiqatan o'ziga tekkanlarini {@link Provisioner}'ga worker pool orqali beradi.
+ * Lease'i o'tgan (to'xtagan instance'dagi) qatorlar qayta navbatga qo'yiladi.
+ * Bir vaqtda ko'pi bilan {@code concurrency} ta paket ishlaydi — savdo
+ * to'lqinida backend'ga bosim shu bilan cheklanadi, qolganlari bazada kutadi.
+ * <p>
+ * Har bir akkaunt uchun tasodifiy parol yaratiladi, backend'ga ochiq holda
+ * beriladi, buyurtmaga esa faqat SHA-256 hash yoziladi: 144 bitlik tasodifiy sirni
+ * sekin hash'lash shart emas, login'lar uchun BCrypt pool'i band qilinmaydi. Muvaffaqiyatsiz urinishlar
+ * eksponensial backoff (jitter bilan) bilan qayta navbatga qo'yiladi,
+ * {@code max-attempts}dan keyin FAILED.
+ */
+@Component
+@Slf4j
+public class HostingProvisioningService implements MeterBinder {
+
+    /** Provisioning'gacha orders.password_hash qiymati (hech bir hash'ga mos kelmaydi) */
+    public static final String PENDING_PASSWORD_HASH = "TEMP";
+
+    private static final int PASSWORD_BYTES = 18;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final HostingProvisioningRepository provisioningRepository;
+    private final OrdersRepository ordersRepository;
+    private final LeaseService leaseService;
+    private final Provisioner provisioner;
+    private final IdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+    private final int concurrency;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoffInitial;
+    private final Duration backoffMax;
+    private final Duration pollInterval;
+    private final Duration lease;
+
+    // Band bo'lmagan worker o'rinlari: dispatcher o'rin bo'lmasa yangi paket olmaydi
+    private final Semaphore slots;
+    private final Semaphore wakeups = new Semaphore(0);
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder provisioned = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private volatile Timer batchTimer;
+    private volatile boolean running = true;
+    private LocalDateTime nextExpiryCheck = LocalDateTime.MIN;
+
+    public HostingProvisioningService(HostingProvisioningRepository provisioningRepository,
+                                      OrdersRepository ordersRepository,
+                                      LeaseService leaseService,
+                                      Provisioner provisioner,
+                                      IdGenerator idGenerator,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.provisioning.enabled:true}") boolean enabled,
+                                      @Value("${app.provisioning.concurrency:8}") int concurrency,
+                                      @Value("${app.provisioning.batch-size:50}") int batchSize,
+                                      @Value("${app.provisioning.max-attempts:8}") int maxAttempts,
+                                      @Value("${app.provisioning.backoff-initial:PT5S}") Duration backoffInitial,
+                                      @Value("${app.provisioning.backoff-max:PT10M}") Duration backoffMax,
+                                      @Value("${app.provisioning.poll-interval:PT1S}") Duration pollInterval,
+                                      @Value("${app.provisioning.lease:PT5M}") Duration lease) {
+        this.provisioningRepository = provisioningRepository;
+        this.ordersRepository = ordersRepository;
+        this.leaseService = leaseService;
+        this.provisioner = provisioner;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffInitial = backoffInitial;
+        this.backoffMax = backoffMax;
+        this.pollInterval = pollInterval;
+        this.lease = lease;
+
+        this.slots = new Semaphore(concurrency);
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "provisioning-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "provisioning-dispatcher");
+        this.dispatcher.setDaemon(true);
+    }
+
+    /* =========================
+       INTAKE (OUTBOX)
+       ========================= */
+
+    // Relay thread'ida: bitta dedupe INSERT, takroriy hodisa zararsiz
+    @EventListener
+    public void onOrderEvent(OutboxMessage message) {
+        if (message.type() != OrderEventType.ACTIVATED) return;
+
+        if (insertIfAbsent(message.orderId())) {
+            queued.increment();
+            wakeups.release();
+        }
+    }
+
+    private boolean insertIfAbsent(Integer orderId) {
+        try {
+            return provisioningRepository.insertIfAbsent(orderId, LocalDateTime.now()) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Xuddi shu hodisa parallel qo'yildi
+            return false;
+        }
+    }
+
+    /* =========================
+       DISPATCHER
+       ========================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Hosting provisioning disabled on this instance");
+            return;
+        }
+
+        int released = provisioningRepository.releaseExpired(LocalDateTime.now());
+        int backfilled = provisioningRepository.backfillActive(PENDING_PASSWORD_HASH, LocalDateTime.now());
+        log.info("Hosting provisioning started: backend={}, concurrency={}, batch={}, released={}, backfilled={}",
+                provisioner.name(), concurrency, batchSize, released, backfilled);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        workers.shutdownNow();
+        // IN_PROGRESS qolganlar lease muddati o'tgach qayta navbatga qo'yiladi
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                slots.acquire();
+                boolean submitted = false;
+                try {
+                    List<Integer> owned = claimDue();
+                    if (!owned.isEmpty()) {
+                        workers.execute(() -> {
+                            try {
+                                process(owned);
+                            } catch (RuntimeException e) {
+                                // Natija yozilmadi — paket keyingi tsiklda qayta olinadi
+                                provisioningRepository.release(owned, leaseService.owner());
+                                log.error("Provisioning batch failed, released: size={}", owned.size(), e);
+                            } finally {
+                                slots.release();
+                            }
+                        });
+                        submitted = true;
+                    }
+                } finally {
+                    if (!submitted) {
+                        slots.release();
+                    }
+                }
+
+                if (!submitted) {
+                    releaseExpired();
+                    // Bo'sh: yangi hodisa yoki retry vaqtini kutamiz
+                    wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Provisioning dispatch failed", e);
+            }
+        }
+    }
+
+    /**
+     * Vaqti kelganlarni oladi va faqat shu instance yutgan id'larni qaytaradi.
+     */
+    private List<Integer> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Integer> due = provisioningRepository.findDue(now, Limit.of(batchSize));
+        if (due.isEmpty() || provisioningRepository.claim(due, leaseService.owner(), now.plus(lease)) == 0) {
+            return List.of();
+        }
+        return provisioningRepository.findOwned(due, leaseService.owner());
+    }
+
+    // Har lease oralig'ida bir marta: to'xtagan instance'lardagi paketlar
+    private void releaseExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        if (now.isBefore(nextExpiryCheck)) return;
+        nextExpiryCheck = now.plus(lease);
+
+        int released = provisioningRepository.releaseExpired(now);
+        if (released > 0) {
+            log.warn("Expired provisioning leases requeued: {}", released);
+        }
+    }
+
+    /* =========================
+       WORKER
+       ========================= */
+
+    void process(List<Integer> orderIds) {
+        Map<Integer, ProvisioningTarget> targets = new HashMap<>();
+        for (ProvisioningTarget target : ordersRepository.findProvisioningTargets(orderIds)) {
+            targets.put(target.orderId(), target);
+        }
+
+        Set<Integer> inactive = new HashSet<>();
+        List<Provisioner.Account> accounts = new ArrayList<>(orderIds.size());
+        Map<Integer, String> hashes = new HashMap<>();
+        Map<Integer, String> errors = new HashMap<>();
+
+        for (Integer orderId : orderIds) {
+            ProvisioningTarget target = targets.get(orderId);
+            if (target == null || target.status() != OrderStatus.ACTIVE) {
+                inactive.add(orderId);
+                continue;
+            }
+
+            String password = idGenerator.token(PASSWORD_BYTES);
+            hashes.put(orderId, SessionService.hash(password));
+            accounts.add(new Provisioner.Account(
+                    orderId, target.tariffId(), target.login(), password, target.domainName()));
+        }
+
+        Map<Integer, String> logins = new HashMap<>();
+        for (Provisioner.Result result : provision(accounts)) {
+            if (!hashes.containsKey(result.orderId())) continue;
+            if (result.succeeded()) {
+                logins.put(result.orderId(), result.login());
+            } else {
+                errors.put(result.orderId(), result.error());
+            }
+        }
+        // Natija qaytmagan akkauntlar — muvaffaqiyatsiz
+        for (Provisioner.Account account : accounts) {
+            if (!logins.containsKey(account.orderId())) {
+                errors.putIfAbsent(account.orderId(), "no result from backend");
+            }
+        }
+
+        apply(orderIds, logins, hashes, inactive, errors);
+    }
+
+    private List<Provisioner.Result> provision(List<Provisioner.Account> accounts) {
+        if (accounts.isEmpty()) return List.of();
+
+        long started = System.nanoTime();
+        try {
+            return provisioner.provision(accounts);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failAll(accounts, "interrupted");
+        } catch (Exception e) {
+            log.warn("Provisioner {} failed: batch={}", provisioner.name(), accounts.size(), e);
+            return failAll(accounts, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            Timer timer = batchTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void apply(List<Integer> orderIds,
+                       Map<Integer, String> logins,
+                       Map<Integer, String> hashes,
+                       Set<Integer> inactive,
+                       Map<Integer, String> errors) {
+        Counts counts = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            Counts result = new Counts();
+
+            // Lease o'tib, qator boshqa instance'ga o'tgan bo'lsa — u yozadi, biz emas
+            for (HostingProvisioning row : provisioningRepository.lockOwned(orderIds, leaseService.owner())) {
+                Integer orderId = row.getOrderId();
+                row.setAttempts(row.getAttempts() + 1);
+
+                if (inactive.contains(orderId)) {
+                    complete(row, ProvisioningStatus.SKIPPED, now);
+                    result.skipped++;
+                } else if (errors.containsKey(orderId)) {
+                    if (scheduleRetry(row, errors.get(orderId), now)) {
+                        result.retried++;
+                    } else {
+                        result.failed++;
+                    }
+                } else {
+                    ordersRepository.updateCredentials(orderId, logins.get(orderId), hashes.get(orderId), now);
+                    complete(row, ProvisioningStatus.DONE, now);
+                    result.provisioned++;
+                }
+            }
+            // Dirty checking: qatorlar commit'da JDBC batch bilan yangilanadi
+            return result;
+        });
+
+        provisioned.add(counts.provisioned);
+        retried.add(counts.retried);
+        failed.add(counts.failed);
+        skipped.add(counts.skipped);
+
+        log.info("Provisioning batch: provisioned={}, retried={}, failed={}, skipped={}",
+                counts.provisioned, counts.retried, counts.failed, counts.skipped);
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private static void complete(HostingProvisioning row, ProvisioningStatus status, LocalDateTime now) {
+        row.setStatus(status);
+        row.setLastError(null);
+        row.setCompletedTime(now);
+        row.setOwner(null);
+        row.setLeaseUntil(null);
+    }
+
+    /**
+     * {@code true} — qayta navbatga qo'yildi, {@code false} — urinishlar tugadi (FAILED).
+     */
+    private boolean scheduleRetry(HostingProvisioning row, String error, LocalDateTime now) {
+        row.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        row.setOwner(null);
+        row.setLeaseUntil(null);
+
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(ProvisioningStatus.FAILED);
+            row.setCompletedTime(now);
+            log.error("Hosting provisioning failed permanently: order={}, attempts={}, error={}",
+                    row.getOrderId(), row.getAttempts(), error);
+            return false;
+        }
+
+        row.setStatus(ProvisioningStatus.QUEUED);
+        row.setNextAttemptTime(now.plus(backoff(row.getAttempts())));
+        return true;
+    }
+
+    // initial * 2^(n-1), max bilan cheklangan; yarmi tasodifiy — qayta urinishlar bir vaqtga to'planmaydi
+    Duration backoff(int attempts) {
+        long initial = backoffInitial.toMillis();
+        long max = backoffMax.toMillis();
+        int shift = Math.min(attempts - 1, 30);
+        long delay = initial > (max >> shift) ? max : Math.min(max, initial << shift);
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+
+    private static List<Provisioner.Result> failAll(List<Provisioner.Account> accounts, String error) {
+        List<Provisioner.Result> results = new ArrayList<>(accounts.size());
+        for (Provisioner.Account account : accounts) {
+            results.add(Provisioner.Result.failed(account, error));
+        }
+        return results;
+    }
+
+    private static final class Counts {
+        int provisioned;
+        int retried;
+        int failed;
+        int skipped;
+    }
+
+    /* =========================
+       STATS
+       ========================= */
+
+    public int inFlight() {
+        return concurrency - slots.availablePermits();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batchTimer = Timer.builder("fasthost.provisioning.batch")
+                .description("Provisioner paket chaqiruvi")
+                .tag("backend", provisioner.name())
+                .register(registry);
+        Gauge.builder("fasthost.provisioning.inflight", this, HostingProvisioningService::inFlight)
+                .description("Ishlayotgan paketlar")
+                .tag("backend", provisioner.name())
+                .register(registry);
+
+        resultCounter(registry, "queued", queued);
+        resultCounter(registry, "provisioned", provisioned);
+        resultCounter(registry, "retried", retried);
+        resultCounter(registry, "failed", failed);
+        resultCounter(registry, "skipped", skipped);
+    }
+
+    private static void resultCounter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("fasthost.provisioning.accounts", adder, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+}
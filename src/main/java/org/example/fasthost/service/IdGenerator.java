@@ -0,0 +1,259 @@
+package org.example.fasthost.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Tokenlar, maxfiy qiymatlar va hosting login'lari uchun yagona generator.
+ * <p>
+ * <b>Tokenlar</b> — kriptografik tasodifiy baytlar, base64url. {@code UUID.randomUUID()}
+ * barcha thread'lar uchun bitta {@link SecureRandom}'dan o'qiydi; bu yerda esa
+ * tasodifiylik bo'laklarga (stripe) bo'lingan: har birida o'z DRBG instance'i va
+ * 4 KiB bufer. Thread o'z stripe'ini id bo'yicha tanlaydi, band bo'lsa keyingisini
+ * oladi — qulf deyarli hech qachon kutilmaydi. ThreadLocal emas: virtual thread'lar
+ * har so'rovda yangi, har biriga DRBG seed qilish qimmat.
+ * Berilgan baytlar buferdan darhol nollanadi.
+ * <p>
+ * <b>Login'lar</b> — {@code host_} + 13 belgili Crockford base32:
+ * 41 bit millisekund (2024-01-01 dan, ~69 yil) | 12 bit ketma-ketlik | 10 bit node id.
+ * Bitta instance ichida CAS bilan monoton (soat orqaga ketsa ham), instance'lar
+ * orasida node id bilan farqlanadi — to'qnashuv yo'q va leksikografik tartib
+ * vaqt tartibiga mos. Node id'ni {@link IdNodeLease} bazadagi lease orqali beradi
+ * va ishga tushishda oxirgi yozilgan login'dan oldinga suradi (restart paytida soat
+ * orqaga ketgan bo'lsa ham). orders.login'dagi unique indeks — oxirgi himoya.
+ */
+@Component
+@Slf4j
+public class IdGenerator {
+
+    public static final String LOGIN_PREFIX = "host_";
+
+    private static final int TOKEN_BYTES = 32;
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int NO_NODE = -1;
+    private static final int LOGIN_CHARS = 13;   // 63 bit / 5
+    static final int LOGIN_LENGTH = LOGIN_PREFIX.length() + LOGIN_CHARS;
+    private static final char[] CROCKFORD = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final Stripe[] stripes;
+    private final LongSupplier clock;
+    private volatile int nodeId = NO_NODE;
+
+    // (millis - EPOCH) << SEQUENCE_BITS | sequence
+    private final AtomicLong lastStamp = new AtomicLong();
+
+    /**
+     * Spring: node id keyin {@link IdNodeLease} orqali beriladi, ungacha {@link #login()} ishlamaydi.
+     */
+    public IdGenerator() {
+        this(NO_NODE, System::currentTimeMillis);
+    }
+
+    /**
+     * Qat'iy node id bilan (benchmark'lar, bazasiz ishlatish).
+     */
+    public IdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+        requireNode(nodeId);
+    }
+
+    IdGenerator(int nodeId, LongSupplier clock) {
+        this.nodeId = nodeId;
+        this.clock = clock;
+
+        // Yadrolar x2 dan katta yoki teng 2 ning darajasi: stripe tanlash — bitli AND
+        int cores = Runtime.getRuntime().availableProcessors();
+        int count = Integer.highestOneBit(cores * 2 - 1) << 1;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe();
+        }
+        log.info("Id generator: random stripes={}", count);
+    }
+
+    /* =========================
+       TOKENS
+       ========================= */
+
+    /**
+     * 256 bit tasodifiy token (43 belgi, base64url) — sessiya, API kalitlari, paymentId.
+     */
+    public String token() {
+        return token(TOKEN_BYTES);
+    }
+
+    /**
+     * {@code bytes} bayt tasodifiylikdan base64url qator (masalan, hosting paroli).
+     */
+    public String token(int bytes) {
+        byte[] random = new byte[bytes];
+        nextBytes(random);
+        return BASE64URL.encodeToString(random);
+    }
+
+    public void nextBytes(byte[] target) {
+        int mask = stripes.length - 1;
+        int start = (int) Thread.currentThread().threadId() & mask;
+
+        // Bo'sh stripe'ni qidiramiz; hammasi band bo'lsa o'zimiznikini kutamiz
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(start + i) & mask];
+            if (stripe.lock.tryLock()) {
+                try {
+                    stripe.take(target);
+                } finally {
+                    stripe.lock.unlock();
+                }
+                return;
+            }
+        }
+
+        Stripe own = stripes[start];
+        own.lock.lock();
+        try {
+            own.take(target);
+        } finally {
+            own.lock.unlock();
+        }
+    }
+
+    /* =========================
+       LOGINS
+       ========================= */
+
+    /**
+     * Hosting login: {@code host_} + vaqt tartibidagi 13 belgi.
+     */
+    public String login() {
+        int node = nodeId;
+        if (node == NO_NODE) {
+            throw new IllegalStateException("Id generator node id'siz: lease olinmagan yoki yo'qotilgan");
+        }
+        long id = (nextStamp() << NODE_BITS) | node;
+
+        char[] chars = new char[LOGIN_LENGTH];
+        LOGIN_PREFIX.getChars(0, LOGIN_PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= LOGIN_PREFIX.length(); i--) {
+            chars[i] = CROCKFORD[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Monoton (vaqt, ketma-ketlik): bitta millisekundda 4096 dan ko'p so'ralsa
+     * keyingi millisekund "qarzga" olinadi — kutish yo'q, tartib va yagonalik saqlanadi.
+     */
+    long nextStamp() {
+        while (true) {
+            long previous = lastStamp.get();
+            long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            long next = now > previous ? now : previous + 1;
+            if (lastStamp.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+
+    /* =========================
+       NODE (IdNodeLease)
+       ========================= */
+
+    int nodeId() {
+        return nodeId;
+    }
+
+    void assignNode(int nodeId) {
+        requireNode(nodeId);
+        this.nodeId = nodeId;
+    }
+
+    void clearNode() {
+        this.nodeId = NO_NODE;
+    }
+
+    /**
+     * Keyingi stamp'lar {@code stamp}'dan katta bo'ladi (avvalgi ishga tushishdagi login'lar).
+     */
+    void advancePast(long stamp) {
+        lastStamp.accumulateAndGet(stamp, Math::max);
+    }
+
+    /**
+     * Login'dagi (vaqt, ketma-ketlik) qismi; format boshqa bo'lsa — bo'sh.
+     */
+    static OptionalLong stampOf(String login) {
+        if (login == null || login.length() != LOGIN_LENGTH || !login.startsWith(LOGIN_PREFIX)) {
+            return OptionalLong.empty();
+        }
+        long id = 0;
+        for (int i = LOGIN_PREFIX.length(); i < login.length(); i++) {
+            int digit = Arrays.binarySearch(CROCKFORD, login.charAt(i));
+            if (digit < 0) {
+                return OptionalLong.empty();
+            }
+            id = (id << 5) | digit;
+        }
+        return OptionalLong.of(id >>> NODE_BITS);
+    }
+
+    private static void requireNode(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("node id 0.." + MAX_NODE_ID + " oralig'ida bo'lishi kerak: " + nodeId);
+        }
+    }
+
+    /* =========================
+       STRIPE
+       ========================= */
+
+    private static final class Stripe {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final SecureRandom random = newRandom();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        int position = BUFFER_SIZE;
+
+        // lock ostida chaqiriladi
+        void take(byte[] target) {
+            if (target.length > BUFFER_SIZE) {
+                random.nextBytes(target);
+                return;
+            }
+            if (BUFFER_SIZE - position < target.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            System.arraycopy(buffer, position, target, 0, target.length);
+            // Berilgan baytlar xotirada qolmasin
+            Arrays.fill(buffer, position, position + target.length, (byte) 0);
+            position += target.length;
+        }
+
+        private static SecureRandom newRandom() {
+            try {
+                // DRBG instance'lari bir-biridan mustaqil (NativePRNG umumiy qulf ishlatadi)
+                return SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.fasthost.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.repository.OrdersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link IdGenerator} uchun 10 bitlik node id: "ids.node.N" lease'i ({@link LeaseService}).
+ * <p>
+ * {@code app.ids.node-id} berilmagan bo'lsa (-1), tasodifiy joydan boshlab birinchi
+ * bo'sh N olinadi; berilgan bo'lsa aynan shu N — band bo'lsa ishga tushish to'xtaydi,
+ * ikki instance bitta node id bilan login yaratmaydi. Lease {@code node-lease}dan tez-tez
+ * uzaytiriladi; yo'qotilsa generator yangi lease olguncha login bermaydi.
+ * <p>
+ * Ishga tushishda generator oxirgi yozilgan login'dan oldinga suriladi: restart
+ * paytida soat orqaga ketgan bo'lsa ham eski login'lar qaytarilmaydi.
+ */
+@Component
+@Slf4j
+public class IdNodeLease {
+
+    private static final String LEASE_PREFIX = "ids.node.";
+    private static final int AUTO = -1;
+
+    private final IdGenerator idGenerator;
+    private final LeaseService leaseService;
+    private final OrdersRepository ordersRepository;
+    private final int configuredNodeId;
+    private final Duration ttl;
+
+    public IdNodeLease(IdGenerator idGenerator,
+                       LeaseService leaseService,
+                       OrdersRepository ordersRepository,
+                       @Value("${app.ids.node-id:-1}") int configuredNodeId,
+                       @Value("${app.ids.node-lease:PT1M}") Duration ttl) {
+        this.idGenerator = idGenerator;
+        this.leaseService = leaseService;
+        this.ordersRepository = ordersRepository;
+        this.configuredNodeId = configuredNodeId;
+        this.ttl = ttl;
+    }
+
+    @PostConstruct
+    public void start() {
+        ordersRepository.findLatestLogin(IdGenerator.LOGIN_PREFIX + "%", IdGenerator.LOGIN_LENGTH)
+                .map(IdGenerator::stampOf)
+                .filter(OptionalLong::isPresent)
+                .ifPresent(stamp -> idGenerator.advancePast(stamp.getAsLong()));
+
+        int nodeId = acquire();
+        if (nodeId == AUTO) {
+            throw new IllegalStateException(configuredNodeId == AUTO
+                    ? "Bo'sh node id yo'q (0.." + IdGenerator.MAX_NODE_ID + " hammasi band)"
+                    : "app.ids.node-id=" + configuredNodeId + " boshqa instance'da band");
+        }
+        idGenerator.assignNode(nodeId);
+        log.info("Id generator node id: {}", nodeId);
+    }
+
+    // Lease muddatining uchdan biri: bitta muvaffaqiyatsiz uzaytirish lease'ni yo'qotmaydi
+    @Scheduled(fixedDelayString = "${app.ids.node-renew-interval:PT20S}")
+    public void renew() {
+        int nodeId = idGenerator.nodeId();
+        if (nodeId != AUTO && leaseService.tryAcquire(LEASE_PREFIX + nodeId, ttl)) {
+            return;
+        }
+
+        idGenerator.clearNode();
+        int acquired = acquire();
+        if (acquired == AUTO) {
+            log.error("Id generator node id lease lost, no free node id: previous={}", nodeId);
+            return;
+        }
+        idGenerator.assignNode(acquired);
+        log.warn("Id generator node id lease re-acquired: previous={}, now={}", nodeId, acquired);
+    }
+
+    @PreDestroy
+    public void stop() {
+        int nodeId = idGenerator.nodeId();
+        if (nodeId != AUTO) {
+            leaseService.release(LEASE_PREFIX + nodeId);
+        }
+    }
+
+    private int acquire() {
+        if (configuredNodeId != AUTO) {
+            return leaseService.tryAcquire(LEASE_PREFIX + configuredNodeId, ttl) ? configuredNodeId : AUTO;
+        }
+
+        int nodes = IdGenerator.MAX_NODE_ID + 1;
+        int start = ThreadLocalRandom.current().nextInt(nodes);
+        for (int i = 0; i < nodes; i++) {
+            int candidate = (start + i) % nodes;
+            if (leaseService.tryAcquire(LEASE_PREFIX + candidate, ttl)) {
+                return candidate;
+            }
+        }
+        return AUTO;
+    }
+}
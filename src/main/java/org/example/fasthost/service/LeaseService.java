@@ -0,0 +1,58 @@
+package org.example.fasthost.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.repository.LeasesRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Klasterda "faqat bitta instance" kerak bo'lgan ishlar uchun lease'lar (leases jadvali).
+ * <p>
+ * Har bir instance ishga tushishda tasodifiy {@link #owner()} oladi. Lease'ni ushlab
+ * turuvchi uni {@code ttl} tugashidan oldin qayta {@link #tryAcquire} bilan uzaytiradi;
+ * to'xtagan instance'ning lease'i muddat o'tgach boshqasiga o'tadi.
+ * Vaqt ilovaning soatidan olinadi — instance'lar soati NTP bilan sinxron bo'lishi kerak.
+ */
+@Service
+@Slf4j
+public class LeaseService {
+
+    private final LeasesRepository leasesRepository;
+    private final String owner = UUID.randomUUID().toString();
+
+    public LeaseService(LeasesRepository leasesRepository) {
+        this.leasesRepository = leasesRepository;
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * {@code true} — lease shu instance'da (yangi olindi yoki uzaytirildi).
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(ttl);
+        try {
+            if (leasesRepository.insertIfAbsent(name, owner, until) > 0) {
+                return true;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Parallel instance birinchi yaratdi — quyidagi shartli UPDATE hal qiladi
+        }
+        return leasesRepository.acquire(name, owner, now, until) > 0;
+    }
+
+    public void release(String name) {
+        try {
+            leasesRepository.release(name, owner, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Lease not released, it will expire: name={}", name, e);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.dto.OutboxMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hodisalarni shu jarayon ichidagi {@code @EventListener(OutboxMessage)}
+ * tinglovchilarga uzatadi (relay thread'ida, sinxron). Tinglovchi xatosi
+ * paketni qayta yetkazishga olib keladi, shuning uchun ular tez va idempotent bo'lishi kerak.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sinks.local.enabled", havingValue = "true", matchIfMissing = true)
+public class LocalOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public LocalOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        for (OutboxMessage message : messages) {
+            eventPublisher.publishEvent(message);
+        }
+    }
+}
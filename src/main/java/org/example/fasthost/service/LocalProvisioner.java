@@ -0,0 +1,53 @@
+package org.example.fasthost.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lokal (soxta) backend: tashqi panelsiz ishlab chiqish va yuklama testlari uchun.
+ * Har bir paketga sozlangan kechikish qo'shadi va berilgan ehtimollik bilan
+ * akkauntlarni muvaffaqiyatsiz qaytaradi — retry/backoff yo'lini tekshirish uchun.
+ */
+@Component
+@ConditionalOnProperty(name = "app.provisioning.backend", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalProvisioner implements Provisioner {
+
+    private final Duration latency;
+    private final double failureRate;
+
+    public LocalProvisioner(@Value("${app.provisioning.local.latency:PT0.05S}") Duration latency,
+                            @Value("${app.provisioning.local.failure-rate:0}") double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public List<Result> provision(List<Account> accounts) throws InterruptedException {
+        // Panel API'ga bitta paket so'rovi
+        Thread.sleep(latency.toMillis());
+
+        List<Result> results = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+                results.add(Result.failed(account, "local: simulated failure"));
+            } else {
+                log.debug("Local hosting account created: order={}, login={}", account.orderId(), account.login());
+                results.add(Result.ok(account));
+            }
+        }
+        return results;
+    }
+}
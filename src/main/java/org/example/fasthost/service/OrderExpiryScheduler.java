@@ -0,0 +1,197 @@
+package org.example.fasthost.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.dto.OrderExpiryKey;
+import org.example.fasthost.repository.OrdersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Faol buyurtmalarning tugash vaqtlarini xotiradagi timing wheel'da saqlaydi
+ * va har soniyada muddati yetganlarini EXPIRED qiladi.
+ * <p>
+ * Ishga tushishda bazadan qayta quriladi, keyin faqat faollashtirish,
+ * uzaytirish va bekor qilishda yangilanadi. {@link OrderExpiryService}'dagi
+ * davriy sweep — zaxira (masalan, boshqa instance'da yaratilgan buyurtmalar uchun).
+ */
+@Component
+@Slf4j
+public class OrderExpiryScheduler implements MeterBinder {
+
+    private static final long RETRY_DELAY_SECONDS = 5;
+
+    private final OrdersRepository ordersRepository;
+    private final OrderExpiryService orderExpiryService;
+    private final int rebuildChunkSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TimingWheel wheel = new TimingWheel(currentTick());
+
+    public OrderExpiryScheduler(OrdersRepository ordersRepository,
+                                OrderExpiryService orderExpiryService,
+                                @Value("${app.orders.expiry.chunk-size:500}") int rebuildChunkSize) {
+        this.ordersRepository = ordersRepository;
+        this.orderExpiryService = orderExpiryService;
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    /* =========================
+       REBUILD (STARTUP)
+       ========================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LocalDateTime afterEndTime = LocalDateTime.of(1970, 1, 1, 0, 0);
+        Integer afterId = 0;
+        int loaded = 0;
+
+        while (true) {
+            List<OrderExpiryKey> keys = ordersRepository.findActiveChunk(
+                    afterEndTime, afterId, Limit.of(rebuildChunkSize));
+            if (keys.isEmpty()) break;
+
+            lock.lock();
+            try {
+                for (OrderExpiryKey key : keys) {
+                    wheel.schedule(key.id(), toTick(key.endTime()));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            loaded += keys.size();
+            OrderExpiryKey last = keys.get(keys.size() - 1);
+            afterEndTime = last.endTime();
+            afterId = last.id();
+
+            if (keys.size() < rebuildChunkSize) break;
+        }
+
+        log.info("Expiry timing wheel rebuilt: {} active orders", loaded);
+    }
+
+    /* =========================
+       UPDATES (AFTER COMMIT)
+       ========================= */
+
+    public void scheduleAfterCommit(Integer orderId, LocalDateTime endTime) {
+        afterCommit(() -> schedule(orderId, endTime));
+    }
+
+    public void cancelAfterCommit(Integer orderId) {
+        afterCommit(() -> cancel(orderId));
+    }
+
+    public void schedule(Integer orderId, LocalDateTime endTime) {
+        lock.lock();
+        try {
+            wheel.schedule(orderId, toTick(endTime));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void cancel(Integer orderId) {
+        lock.lock();
+        try {
+            wheel.cancel(orderId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fasthost.orders.expiry.wheel.size", this, OrderExpiryScheduler::size)
+                .description("Timing wheel'dagi faol buyurtmalar")
+                .register(registry);
+    }
+
+    /* =========================
+       TICK
+       ========================= */
+
+    @Scheduled(fixedRateString = "${app.orders.expiry.tick:1000}")
+    public void tick() {
+        List<Integer> due;
+        lock.lock();
+        try {
+            due = wheel.advanceTo(currentTick());
+        } finally {
+            lock.unlock();
+        }
+
+        if (due.isEmpty()) return;
+
+        // Shartli UPDATE: orada uzaytirilgan yoki bekor qilinganlar tegilmaydi
+        int expired;
+        try {
+            expired = orderExpiryService.expire(due, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            // Commit bo'lmadi — wheel'ga qaytaramiz, aks holda bu buyurtmalar hech qachon tugamaydi
+            long retryTick = currentTick() + RETRY_DELAY_SECONDS;
+            lock.lock();
+            try {
+                for (Integer orderId : due) {
+                    wheel.scheduleIfAbsent(orderId, retryTick);
+                }
+            } finally {
+                lock.unlock();
+            }
+            log.error("Order expiry failed, rescheduled: due={}, retryIn={}s", due.size(), RETRY_DELAY_SECONDS, e);
+            return;
+        }
+        log.info("Orders expired on deadline: due={}, expired={}", due.size(), expired);
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Tugash soniyasidan keyingi tick — UPDATE'dagi "end_time < now" sharti albatta bajariladi
+    private static long toTick(LocalDateTime time) {
+        ZonedDateTime zoned = time.atZone(ZoneId.systemDefault());
+        return zoned.toEpochSecond() + 1;
+    }
+
+    private static long currentTick() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
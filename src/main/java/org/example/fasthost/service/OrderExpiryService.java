@@ -0,0 +1,242 @@
+package org.example.fasthost.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.dto.OrderExpiryKey;
+import org.example.fasthost.entity.dto.OrderRef;
+import org.example.fasthost.repository.OrdersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Muddati tugagan buyurtmalarni bo'laklab EXPIRED holatiga o'tkazadi.
+ * <p>
+ * Har bir bo'lak: (end_time, id) keyset bo'yicha id'lar olinadi, alohida qisqa
+ * tranzaksiyada hali ham muddati o'tganlari qulflanadi (SELECT ... FOR UPDATE)
+ * va aynan shular bulk UPDATE bilan yangilanadi — entity'lar persistence context'ga
+ * yuklanmaydi. Qulf tufayli UPDATE o'zgartirgan qatorlar qulflangan ro'yxatning o'zi:
+ * outbox hodisalari uchun UPDATE'dan keyin qayta tanlash (updateTime tengligi) kerak emas.
+ * order_summaries ham shu tranzaksiyada yangilanadi.
+ * <p>
+ * Xuddi shu usulda {@code pending-ttl}'dan uzoq to'lanmay turgan PENDING buyurtmalar
+ * CANCELED qilinadi.
+ */
+@Service
+@Slf4j
+public class OrderExpiryService {
+
+    // Keyset boshlanishi: hech bir buyurtma bundan oldin tugamaydi
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrdersRepository ordersRepository;
+    private final OrderSummaryService orderSummaryService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunksPerRun;
+    private final Duration pendingTtl;
+
+    private final AtomicLong totalExpired = new AtomicLong();
+    private final AtomicLong totalCanceled = new AtomicLong();
+    private final AtomicLong totalChunks = new AtomicLong();
+    private volatile RunStats lastRun = RunStats.NONE;
+
+    private final Timer runTimer;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public OrderExpiryService(OrdersRepository ordersRepository,
+                              OrderSummaryService orderSummaryService,
+                              OutboxService outboxService,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.orders.expiry.chunk-size:500}") int chunkSize,
+                              @Value("${app.orders.expiry.max-chunks-per-run:200}") int maxChunksPerRun,
+                              @Value("${app.orders.pending-ttl:PT24H}") Duration pendingTtl) {
+        this.ordersRepository = ordersRepository;
+        this.orderSummaryService = orderSummaryService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxChunksPerRun = maxChunksPerRun;
+        this.pendingTtl = pendingTtl;
+
+        this.runTimer = Timer.builder("fasthost.orders.expiry.run")
+                .description("Davriy expiry sweep davomiyligi")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("fasthost.orders.expiry.batch")
+                .description("Bitta expiry UPDATE tranzaksiyasi")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("fasthost.orders.expiry.batch.size")
+                .description("Bitta UPDATE'dagi nomzodlar soni")
+                .register(meterRegistry);
+        FunctionCounter.builder("fasthost.orders.expired", totalExpired, AtomicLong::get)
+                .description("EXPIRED qilingan buyurtmalar")
+                .register(meterRegistry);
+        FunctionCounter.builder("fasthost.orders.pending.canceled", totalCanceled, AtomicLong::get)
+                .description("To'lanmagani uchun bekor qilingan buyurtmalar")
+                .register(meterRegistry);
+    }
+
+    /* =========================
+       EXPIRE CHECK (SCHEDULED)
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.interval:PT5M}")
+    public void expireDueOrders() {
+        runOnce();
+    }
+
+    public RunStats runOnce() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        LocalDateTime afterEndTime = KEYSET_START;
+        Integer afterId = 0;
+        int chunks = 0;
+        long scanned = 0;
+        long expired = 0;
+
+        while (chunks < maxChunksPerRun) {
+            List<OrderExpiryKey> keys = ordersRepository.findExpiredChunk(
+                    now, afterEndTime, afterId, Limit.of(chunkSize));
+            if (keys.isEmpty()) {
+                break;
+            }
+
+            int updated = expire(keys.stream().map(OrderExpiryKey::id).toList(), now);
+
+            OrderExpiryKey last = keys.get(keys.size() - 1);
+            afterEndTime = last.endTime();
+            afterId = last.id();
+
+            chunks++;
+            scanned += keys.size();
+            expired += updated;
+            totalChunks.incrementAndGet();
+
+            log.debug("Expiry chunk #{}: candidates={}, expired={}, cursor=({}, {})",
+                    chunks, keys.size(), updated, afterEndTime, afterId);
+
+            if (keys.size() < chunkSize) {
+                break;
+            }
+        }
+
+        RunStats stats = new RunStats(now, chunks, scanned, expired,
+                Duration.ofNanos(System.nanoTime() - started));
+        lastRun = stats;
+        runTimer.record(stats.duration());
+
+        if (expired > 0 || chunks >= maxChunksPerRun) {
+            log.info("Expired orders: count={}, chunks={}, scanned={}, took={}ms{}",
+                    expired, chunks, scanned, stats.duration().toMillis(),
+                    chunks >= maxChunksPerRun ? " (limitga yetdi, keyingi ishga tushishda davom etadi)" : "");
+        }
+        return stats;
+    }
+
+    /**
+     * Berilgan buyurtmalarni shartli ravishda EXPIRED qiladi (alohida tranzaksiyada).
+     * Holati o'zgargan yoki muddati uzaytirilganlar tegilmaydi.
+     * Haqiqatda EXPIRED bo'lganlar uchun shu tranzaksiyada outbox hodisasi yoziladi.
+     */
+    public int expire(List<Integer> orderIds, LocalDateTime now) {
+        if (orderIds.isEmpty()) return 0;
+
+        batchSize.record(orderIds.size());
+        Integer updated = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<OrderRef> refs = ordersRepository.lockExpiring(orderIds, now);
+            if (refs.isEmpty()) {
+                return 0;
+            }
+            List<Integer> ids = refs.stream().map(OrderRef::id).toList();
+            int count = ordersRepository.expireByIds(ids, now);
+            orderSummaryService.markExpired(ids, now);
+            outboxService.expiredEvents(refs, now);
+            return count;
+        }));
+        int count = updated == null ? 0 : updated;
+        totalExpired.addAndGet(count);
+        return count;
+    }
+
+    /* =========================
+       PENDING TIMEOUT (SCHEDULED)
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.interval:PT5M}")
+    public void cancelStalePending() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime before = now.minus(pendingTtl);
+
+        Integer afterId = 0;
+        int chunks = 0;
+        long canceled = 0;
+
+        while (chunks < maxChunksPerRun) {
+            List<Integer> ids = ordersRepository.findStalePendingChunk(before, afterId, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer updated = transactionTemplate.execute(status -> {
+                // Faqat qulflanganlar bekor qilinadi: shu orada to'langanlar summary'da ham tegilmaydi
+                List<OrderRef> refs = ordersRepository.lockStalePending(ids, before);
+                if (refs.isEmpty()) {
+                    return 0;
+                }
+                List<Integer> locked = refs.stream().map(OrderRef::id).toList();
+                int count = ordersRepository.cancelStaleByIds(locked, before, now);
+                orderSummaryService.markCanceled(locked);
+                outboxService.canceledEvents(refs, now);
+                return count;
+            });
+            canceled += updated == null ? 0 : updated;
+
+            afterId = ids.get(ids.size() - 1);
+            chunks++;
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+        }
+
+        totalCanceled.addAndGet(canceled);
+        if (canceled > 0) {
+            log.info("Unpaid orders canceled: count={}, chunks={}, ttl={}", canceled, chunks, pendingTtl);
+        }
+    }
+
+    /* =========================
+       METRICS
+       ========================= */
+
+    public long totalExpired() {
+        return totalExpired.get();
+    }
+
+    public long totalChunks() {
+        return totalChunks.get();
+    }
+
+    public RunStats lastRun() {
+        return lastRun;
+    }
+
+    public record RunStats(LocalDateTime startedAt, int chunks, long scanned, long expired, Duration duration) {
+        static final RunStats NONE = new RunStats(null, 0, 0, 0, Duration.ZERO);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.fasthost.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.example.fasthost.entity.dto.OrderStatusCount;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.repository.OrdersRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code fasthost.orders.count{status=...}} gauge'lari.
+ * <p>
+ * Scrape paytida bazaga bormaslik uchun sonlar davriy ravishda bitta
+ * GROUP BY so'rovi bilan yangilanadi va xotirada saqlanadi.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusMetrics implements MeterBinder {
+
+    private final OrdersRepository ordersRepository;
+    private final Map<OrderStatus, AtomicLong> counts = emptyCounts();
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counts.forEach((status, count) ->
+                Gauge.builder("fasthost.orders.count", count, AtomicLong::get)
+                        .tag("status", status.name())
+                        .register(registry));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.metrics.order-status-refresh:PT1M}", initialDelayString = "${app.metrics.order-status-refresh:PT1M}")
+    public void refresh() {
+        Map<OrderStatus, Long> fresh = new EnumMap<>(OrderStatus.class);
+        for (OrderStatusCount row : ordersRepository.countByStatus()) {
+            fresh.put(row.status(), row.count());
+        }
+        counts.forEach((status, count) -> count.set(fresh.getOrDefault(status, 0L)));
+    }
+
+    private static Map<OrderStatus, AtomicLong> emptyCounts() {
+        Map<OrderStatus, AtomicLong> counts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            counts.put(status, new AtomicLong());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.fasthost.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.OrderSummaries;
+import org.example.fasthost.entity.Orders;
+import org.example.fasthost.repository.OrderSummariesRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * order_summaries read model'ini yozish tomoni.
+ * Barcha metodlar chaqiruvchining tranzaksiyasida ishlaydi — buyurtma va
+ * uning summary'si birga commit yoki rollback bo'ladi.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSummaryService {
+
+    private final OrderSummariesRepository summariesRepository;
+
+    /**
+     * Yangi buyurtma uchun summary yaratadi.
+     * Tarif nomi katalogdan beriladi — lazy tariff proxy yuklanmaydi.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void create(Orders order, String tariffName) {
+        summariesRepository.save(toSummary(order, tariffName));
+    }
+
+    /**
+     * Ko'p buyurtma uchun: tariff — katalog snapshot'idagi (to'liq yuklangan) entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createAll(List<Orders> orders) {
+        List<OrderSummaries> summaries = new ArrayList<>(orders.size());
+        for (Orders order : orders) {
+            summaries.add(toSummary(order, order.getTariff().getName()));
+        }
+        summariesRepository.saveAll(summaries);
+    }
+
+    private static OrderSummaries toSummary(Orders order, String tariffName) {
+        return OrderSummaries.builder()
+                .orderId(order.getId())
+                .userId(order.getUser().getId())
+                .tariffId(order.getTariff().getId())
+                .tariffName(tariffName)
+                .status(order.getStatus())
+                .durationDays(order.getDurationDays())
+                .totalPrice(order.getTotalPrice())
+                .domainName(order.getDomainName())
+                .startTime(order.getStartTime())
+                .endTime(order.getEndTime())
+                .createTime(order.getCreateTime() != null ? order.getCreateTime() : LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Status, muddat va narxni buyurtmadan qayta ko'chiradi.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sync(Orders order) {
+        OrderSummaries summary = summariesRepository.findById(order.getId()).orElse(null);
+        if (summary == null) {
+            log.warn("Order summary topilmadi: orderId={}", order.getId());
+            return;
+        }
+
+        summary.setStatus(order.getStatus());
+        summary.setDurationDays(order.getDurationDays());
+        summary.setTotalPrice(order.getTotalPrice());
+        summary.setDomainName(order.getDomainName());
+        summary.setStartTime(order.getStartTime());
+        summary.setEndTime(order.getEndTime());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int markExpired(List<Integer> orderIds, LocalDateTime now) {
+        return summariesRepository.expireByIds(orderIds, now);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int markCanceled(List<Integer> orderIds) {
+        return summariesRepository.cancelByIds(orderIds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissing() {
+        int inserted = summariesRepository.backfillMissing();
+        if (inserted > 0) {
+            log.info("Order summaries backfilled: {}", inserted);
+        }
+    }
+}
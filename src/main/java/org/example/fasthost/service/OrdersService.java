@@ -3,23 +3,39 @@ package org.example.fasthost.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.fasthost.entity.Orders;
+import org.example.fasthost.entity.PaymentCallbacks;
 import org.example.fasthost.entity.Tariffs;
 import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.dto.CursorPage;
 import org.example.fasthost.entity.dto.OrderCreateRequest;
 import org.example.fasthost.entity.dto.OrderCreateResponse;
+import org.example.fasthost.entity.dto.OrderDetails;
+import org.example.fasthost.entity.dto.OrderListItem;
 import org.example.fasthost.entity.dto.Response;
+import org.example.fasthost.entity.enums.LedgerEntryType;
+import org.example.fasthost.entity.enums.OrderEventType;
 import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.PaymentCallbackStatus;
+import org.example.fasthost.repository.OrderSummariesRepository;
 import org.example.fasthost.repository.OrdersRepository;
-import org.example.fasthost.repository.TariffsRepository;
+import org.example.fasthost.repository.PaymentCallbacksRepository;
 import org.example.fasthost.repository.UsersRepository;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -27,71 +43,193 @@ import java.util.UUID;
 public class OrdersService {
 
     private final OrdersRepository ordersRepository;
-    private final TariffsRepository tariffsRepository;
+    private final TariffCatalog tariffCatalog;
     private final UsersRepository usersRepository;
+    private final BalanceService balanceService;
+    private final OrderExpiryScheduler orderExpiryScheduler;
+    private final OrderSummaryService orderSummaryService;
+    private final OrderSummariesRepository orderSummariesRepository;
+    private final PricingEngine pricingEngine;
+    private final PaymentCallbacksRepository paymentCallbacksRepository;
+    private final OutboxService outboxService;
+    private final IdGenerator idGenerator;
+
+    @Value("${app.orders.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.orders.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.orders.bulk.max-items:500}")
+    private int maxBulkItems;
+
+    @Value("${app.payments.checkout-url:https://pay.example.com/checkout/{paymentId}}")
+    private String checkoutUrl;
 
     /* =========================
        CREATE ORDER
        ========================= */
     @Transactional
-    public Response<OrderCreateResponse> createOrder(OrderCreateRequest request, Users user) {
-
-        Tariffs tariff = tariffsRepository.findById(request.getTariffId())
-                .orElse(null);
+    public Response<OrderCreateResponse> createOrder(OrderCreateRequest request, Users principal) {
 
-        if (tariff == null || !Boolean.TRUE.equals(tariff.getActive())) {
-            return Response.error("Tarif topilmadi yoki faol emas");
-        }
-
-        int days = request.getDurationMonths();
-        if (days <= 0 || days > 1095) {
-            return Response.error("Noto‘g‘ri muddat");
-        }
+        // Faqat id kerak — principal keshdan yoki imzolangan tokendan kelgan bo'lishi mumkin
+        Users user = usersRepository.getReferenceById(principal.getId());
 
-        BigDecimal totalPrice = calculatePrice(tariff.getPrice(), days);
+        // Katalog snapshot'idan — tarif uchun so'rov yo'q
+        Tariffs tariff = tariffCatalog.findById(request.getTariffId())
+                .orElse(null);
 
-        if (user.getBalance().compareTo(totalPrice) < 0) {
-            return Response.error("Balansingizda yetarli mablag‘ yo‘q");
+        String error = validate(tariff, request.getDurationDays());
+        if (error != null) {
+            return Response.error(error);
         }
 
-        Orders order = Orders.builder()
-                .user(user)
-                .tariff(tariff)
-                .durationDays(days)
-                .totalPrice(totalPrice)
-                .status(OrderStatus.PENDING)
-                .login(generateLogin())
-                .passwordHash("TEMP") // realda encoder bilan
-                .build();
+        // Balansga tegilmaydi: buyurtma to'lov sahifasida to'lanadi, pul harakati
+        // callback'da jurnalga yoziladi (confirmPayments)
+        Orders order = newOrder(user, tariff, request);
+        BigDecimal totalPrice = order.getTotalPrice();
 
         ordersRepository.save(order);
 
+        orderSummaryService.create(order, tariff.getName());
+        outboxService.orderEvent(order, OrderEventType.CREATED);
+
         OrderCreateResponse response = new OrderCreateResponse(
                 order.getId(),
                 totalPrice,
-                order.getEndTime()
+                order.getStartTime(),
+                order.getEndTime(),
+                order.getDurationDays(),
+                paymentUrl(order)
         );
 
         log.info("Order created: id={}, user={}, tariff={}",
-                order.getId(), user.getEmail(), tariff.getName());
+                order.getId(), user.getId(), tariff.getName());
 
         return Response.success(response);
     }
 
-    public Response<List<Orders>> getUserOrders(Users user) {
+    /* =========================
+       BULK CREATE (RESELLER)
+       ========================= */
+    @Transactional
+    public Response<List<OrderCreateResponse>> createOrders(List<OrderCreateRequest> requests, Users principal) {
+
+        if (requests == null || requests.isEmpty()) {
+            return Response.error("Buyurtmalar ro'yxati bo'sh");
+        }
+
+        if (requests.size() > maxBulkItems) {
+            return Response.error("Bir so'rovda ko'pi bilan " + maxBulkItems + " ta buyurtma");
+        }
+
+        Users user = usersRepository.getReferenceById(principal.getId());
+
+        // Avval hammasini tekshiramiz — bitta xato bo'lsa hech narsa yozilmaydi
+        List<Orders> orders = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            OrderCreateRequest request = requests.get(i);
+            Tariffs tariff = tariffCatalog.findById(request.getTariffId()).orElse(null);
+
+            String error = validate(tariff, request.getDurationDays());
+            if (error != null) {
+                return Response.error((i + 1) + "-buyurtma: " + error);
+            }
+
+            orders.add(newOrder(user, tariff, request));
+        }
+
+        // Pooled sequence: id'lar 50 talik bloklarda, INSERT'lar flush'da JDBC batch bo'lib ketadi
+        ordersRepository.saveAll(orders);
+
+        orderSummaryService.createAll(orders);
+        outboxService.orderEvents(orders, OrderEventType.CREATED);
+
+        List<OrderCreateResponse> responses = new ArrayList<>(orders.size());
+        for (Orders order : orders) {
+            responses.add(new OrderCreateResponse(
+                    order.getId(),
+                    order.getTotalPrice(),
+                    order.getStartTime(),
+                    order.getEndTime(),
+                    order.getDurationDays(),
+                    paymentUrl(order)
+            ));
+        }
+
+        log.info("Bulk orders created: user={}, count={}", user.getId(), orders.size());
+
+        return Response.success(responses);
+    }
+
+    /* =========================
+       LIST ORDERS (KEYSET)
+       ========================= */
+    public Response<CursorPage<OrderListItem>> getUserOrders(Users user, String cursor, Integer size) {
+
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        // Bitta ortiqcha qator — keyingi sahifa borligini bilish uchun
+        Limit limit = Limit.of(pageSize + 1);
+
+        // Tekis read model'dan projection — tarif/user join'i, N+1 va entity yo'q
+        List<OrderListItem> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderSummariesRepository.findFirstPage(user.getId(), limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor).orElse(null);
+            if (after == null) {
+                return Response.error("Noto'g'ri kursor");
+            }
+            orders = orderSummariesRepository.findPageAfter(user.getId(), after.createTime(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            OrderListItem last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.createTime(), last.orderId()).encode();
+        }
+
+        return Response.success(new CursorPage<>(orders, nextCursor));
+    }
 
-        List<Orders> orders = ordersRepository
-                .findByUserOrderByCreateTimeDesc(user);
+    /**
+     * Butun hisobni JDBC cursor bilan o'qib, har bir qatorni {@code sink}'ga beradi.
+     * Oraliq ro'yxat yo'q: xotira sarfi buyurtmalar soniga bog'liq emas.
+     */
+    @Transactional(readOnly = true)
+    public void exportUserOrders(Users user, Consumer<OrderListItem> sink) {
+        try (Stream<OrderListItem> orders = orderSummariesRepository.streamByUserId(user.getId())) {
+            orders.forEach(sink);
+        }
+    }
 
-        return Response.success(orders);
+    /* =========================
+       ORDER DETAILS
+       ========================= */
+    @Transactional(readOnly = true)
+    public Response<OrderDetails> getOrderDetails(Integer orderId, Users user) {
+        return ordersRepository.findDetails(orderId, user.getId())
+                .map(Response::success)
+                .orElseGet(() -> Response.error("Buyurtma topilmadi"));
     }
 
     /* =========================
        EXTEND ORDER (DAYS)
        ========================= */
+    /**
+     * Buyurtma qatori Java'da o'zgartirilmaydi: muddat va narx bitta shartli UPDATE bilan
+     * qo'shiladi, yechish shu tranzaksiyada. Parallel uzaytirishlar qator lock'ida navbat
+     * kutadi va ikkalasi ham hisobga olinadi; balans yetmasa UPDATE ham bekor qilinadi.
+     */
     @Transactional
-    public Response<Void> extendOrder(Long orderId, int additionalDays, Users user) {
+    public Response<Void> extendOrder(Integer orderId, int additionalDays, Users user) {
 
+        if (additionalDays <= 0 || additionalDays > PricingEngine.MAX_DAYS) {
+            return Response.error("Noto‘g‘ri muddat");
+        }
+
+        // Faqat tekshirish va narx uchun — yozish quyidagi UPDATE'da
         Orders order = ordersRepository.findById(orderId).orElse(null);
 
         if (order == null) {
@@ -106,62 +244,187 @@ public class OrdersService {
             return Response.error("Faqat faol buyurtma uzaytiriladi");
         }
 
-        BigDecimal price = calculatePrice(order.getTariff().getPrice(), additionalDays);
+        Tariffs tariff = tariffCatalog.findById(order.getTariff().getId()).orElse(null);
+        if (tariff == null) {
+            return Response.error("Tarif topilmadi");
+        }
+
+        BigDecimal price = pricingEngine.total(tariff.getId(), additionalDays);
+
+        // Shu orada muddati o'tgan yoki bekor qilingan bo'lsa — 0 qator
+        if (ordersRepository.extendActive(orderId, user.getId(), additionalDays, price, LocalDateTime.now()) == 0) {
+            return Response.error("Faqat faol buyurtma uzaytiriladi");
+        }
 
-        if (user.getBalance().compareTo(price) < 0) {
+        if (!balanceService.debit(user.getId(), price, LedgerEntryType.ORDER_EXTEND, orderId)) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return Response.error("Balans yetarli emas");
         }
 
-        user.setBalance(user.getBalance().subtract(price));
-        usersRepository.save(user);
+        // UPDATE persistence context'ni tozaladi — yangi qiymatlar bazadan
+        Orders extended = ordersRepository.findById(orderId).orElseThrow();
+        orderSummaryService.sync(extended);
+        outboxService.orderEvent(extended, OrderEventType.EXTENDED);
+        orderExpiryScheduler.scheduleAfterCommit(orderId, extended.getEndTime());
 
-        order.setDurationDays(order.getDurationDays() + additionalDays);
-        order.setEndTime(order.getEndTime().plusDays(additionalDays));
-        order.setTotalPrice(order.getTotalPrice().add(price));
+        return Response.success();
+    }
 
-        ordersRepository.save(order);
+    /* =========================
+       PAYMENT CONFIRM (CALLBACK)
+       ========================= */
+    /**
+     * To'lov callback'lari paketini qo'llaydi ({@link PaymentCallbackIngestion} worker'laridan).
+     * Avval hali RECEIVED callback qatorlari qulflanadi — boshqa worker yoki instance
+     * qo'llaganlari o'tkazib yuboriladi, shuning uchun har bir to'lov bir marta hisobga
+     * olinadi. Buyurtmalar bitta IN so'rov bilan yuklanadi; callback holatlari shu
+     * tranzaksiyada yoziladi.
+     * <p>
+     * To'lov tashqarida qilingan: faollashgan buyurtmalar uchun jurnalga TOPUP/ORDER_PURCHASE
+     * juftligi yoziladi, balans o'zgarmaydi. Bekor qilingan buyurtmaga kechikib kelgan
+     * to'lov balansga tushadi (TOPUP).
+     */
+    @Transactional
+    public PaymentBatch confirmPayments(List<String> paymentIds) {
+        LocalDateTime now = LocalDateTime.now();
 
-        return Response.success();
+        Set<String> received = new HashSet<>();
+        for (PaymentCallbacks callback : paymentCallbacksRepository.lockReceived(paymentIds)) {
+            received.add(callback.getPaymentId());
+        }
+        if (received.isEmpty()) {
+            return new PaymentBatch(0, 0);
+        }
+
+        Map<String, Orders> byPaymentId = new HashMap<>();
+        for (Orders order : ordersRepository.findByPaymentIdIn(received)) {
+            byPaymentId.put(order.getPaymentId(), order);
+        }
+
+        List<String> applied = new ArrayList<>(received.size());
+        List<String> rejected = new ArrayList<>();
+        List<Orders> activated = new ArrayList<>();
+        for (String paymentId : paymentIds) {
+            if (!received.remove(paymentId)) {
+                continue;
+            }
+            Orders order = byPaymentId.get(paymentId);
+
+            if (order != null && order.getStatus() == OrderStatus.CANCELED) {
+                // Muddati o'tib bekor qilingan, lekin to'langan: pul yo'qolmasin
+                balanceService.credit(order.getUser().getId(), order.getTotalPrice(),
+                        LedgerEntryType.TOPUP, order.getId());
+                log.warn("Payment for canceled order credited to balance: id={}, paymentId={}",
+                        order.getId(), paymentId);
+                applied.add(paymentId);
+                continue;
+            }
+
+            if (order == null || (order.getStatus() != OrderStatus.PENDING && order.getStatus() != OrderStatus.ACTIVE)) {
+                log.warn("Payment callback rejected: paymentId={}, status={}",
+                        paymentId, order == null ? null : order.getStatus());
+                rejected.add(paymentId);
+                continue;
+            }
+
+            if (order.getStatus() == OrderStatus.PENDING) {
+                // Hosting to'lov paytidan boshlanadi
+                order.setStatus(OrderStatus.ACTIVE);
+                order.setStartTime(now);
+                order.setEndTime(now.plusDays(order.getDurationDays()));
+                orderSummaryService.sync(order);
+                orderExpiryScheduler.scheduleAfterCommit(order.getId(), order.getEndTime());
+                activated.add(order);
+                log.info("Order activated: id={}, paymentId={}", order.getId(), paymentId);
+            }
+            applied.add(paymentId);
+        }
+
+        balanceService.recordExternalPayments(activated);
+        outboxService.orderEvents(activated, OrderEventType.ACTIVATED);
+
+        if (!applied.isEmpty()) {
+            paymentCallbacksRepository.markProcessed(applied, PaymentCallbackStatus.APPLIED, now);
+        }
+        if (!rejected.isEmpty()) {
+            paymentCallbacksRepository.markProcessed(rejected, PaymentCallbackStatus.REJECTED, now);
+        }
+
+        return new PaymentBatch(applied.size(), rejected.size());
+    }
+
+    public record PaymentBatch(int applied, int rejected) {
     }
 
     /* =========================
-       EXPIRE CHECK (CRON)
+       CANCEL ORDER
        ========================= */
-    @Scheduled(cron = "0 0 0 * * ?")
     @Transactional
-    public void expireOrders() {
+    public Response<Void> cancelOrder(Integer orderId, Users user) {
 
-        List<Orders> expired =
-                ordersRepository.findExpiredOrders(LocalDateTime.now());
+        Orders order = ordersRepository.findById(orderId).orElse(null);
+
+        if (order == null) {
+            return Response.error("Buyurtma topilmadi");
+        }
 
-        for (Orders order : expired) {
-            order.setStatus(OrderStatus.EXPIRED);
+        if (!order.getUser().getId().equals(user.getId())) {
+            return Response.error("Ruxsat yo‘q");
         }
 
-        ordersRepository.saveAll(expired);
+        if (order.getStatus() != OrderStatus.PENDING) {
+            return Response.error("Faqat to'lanmagan buyurtma bekor qilinadi");
+        }
 
-        log.info("Expired orders count: {}", expired.size());
+        order.setStatus(OrderStatus.CANCELED);
+        ordersRepository.save(order);
+        orderSummaryService.sync(order);
+        outboxService.orderEvent(order, OrderEventType.CANCELED);
+        // To'lanmagan: balansdan hech narsa yechilmagan, qaytariladigan summa yo'q
+        orderExpiryScheduler.cancelAfterCommit(order.getId());
+
+        return Response.<Void>builder()
+                .success(true)
+                .message("Buyurtma bekor qilindi")
+                .build();
     }
 
     /* =========================
        HELPERS
        ========================= */
 
-    private BigDecimal calculatePrice(BigDecimal dailyPrice, int days) {
-        BigDecimal price = dailyPrice.multiply(BigDecimal.valueOf(days));
+    /**
+     * Xato matnini yoki {@code null} (hammasi joyida) qaytaradi.
+     */
+    private String validate(Tariffs tariff, Integer days) {
+        if (tariff == null || !Boolean.TRUE.equals(tariff.getActive())) {
+            return "Tarif topilmadi yoki faol emas";
+        }
 
-        if (days >= 365) {
-            price = price.multiply(BigDecimal.valueOf(0.85));
-        } else if (days >= 180) {
-            price = price.multiply(BigDecimal.valueOf(0.90));
-        } else if (days >= 90) {
-            price = price.multiply(BigDecimal.valueOf(0.95));
+        if (days == null || days <= 0 || days > PricingEngine.MAX_DAYS) {
+            return "Noto‘g‘ri muddat";
         }
 
-        return price;
+        return null;
+    }
+
+    private Orders newOrder(Users user, Tariffs tariff, OrderCreateRequest request) {
+        int days = request.getDurationDays();
+
+        return Orders.builder()
+                .user(user)
+                .tariff(tariff)
+                .durationDays(days)
+                .totalPrice(pricingEngine.total(tariff.getId(), days))
+                .status(OrderStatus.PENDING)
+                .domainName(request.getDomainName())
+                .login(idGenerator.login())
+                .paymentId(idGenerator.token())
+                .passwordHash(HostingProvisioningService.PENDING_PASSWORD_HASH) // provisioning'da haqiqiy hash yoziladi
+                .build();
     }
 
-    private String generateLogin() {
-        return "host_" + UUID.randomUUID().toString().substring(0, 8);
+    private String paymentUrl(Orders order) {
+        return checkoutUrl.replace("{paymentId}", order.getPaymentId());
     }
 }
@@ -0,0 +1,243 @@
+package org.example.fasthost.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.dto.OutboxMessage;
+import org.example.fasthost.repository.OutboxEventsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * outbox_events'dan yetkazilmagan hodisalarni o'qib, barcha {@link OutboxSink}'larga beradi.
+ * <p>
+ * Bitta "outbox-relay" thread: commit'dan keyin {@link #wake()} bilan darhol,
+ * aks holda har {@code poll-interval}da uyg'onadi. Paketlar seq tartibida;
+ * paket barcha sink'larga yetkazilgandan keyingina published qilinadi. Xato bo'lsa
+ * to'xtaydi va keyingi uyg'onishda aynan shu paketdan davom etadi — kamida bir marta
+ * yetkazish, bitta buyurtma hodisalari tartibi buzilmaydi.
+ * <p>
+ * Relay hamma instance'da yoqilgan bo'lishi mumkin: yetkazishni faqat "outbox-relay"
+ * lease'ini ushlab turgan bittasi qiladi ({@link LeaseService}), u har paketdan oldin
+ * lease'ni uzaytiradi. Qolganlari faqat yozadi va lease bo'shashini kutadi.
+ * <p>
+ * {@code fasthost.outbox.pending} relay sikli yangilab turadigan qiymat — scrape
+ * bazaga so'rov yubormaydi. Lease egasi bo'lmagan instance 0 ko'rsatadi.
+ */
+@Component
+@Slf4j
+public class OutboxRelay implements MeterBinder {
+
+    private static final String LEASE = "outbox-relay";
+
+    private final OutboxEventsRepository outboxEventsRepository;
+    private final LeaseService leaseService;
+    private final List<OutboxSink> sinks;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration retention;
+    private final Duration leaseTtl;
+
+    private final Semaphore wakeups = new Semaphore(0);
+    private final Thread thread;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile Timer batchTimer;
+    private volatile boolean running = true;
+    private volatile boolean leader;
+    private volatile long pending;
+
+    public OutboxRelay(OutboxEventsRepository outboxEventsRepository,
+                       LeaseService leaseService,
+                       List<OutboxSink> sinks,
+                       @Value("${app.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${app.outbox.batch-size:200}") int batchSize,
+                       @Value("${app.outbox.poll-interval:PT1S}") Duration pollInterval,
+                       @Value("${app.outbox.retention:P7D}") Duration retention,
+                       @Value("${app.outbox.relay.lease:PT30S}") Duration leaseTtl) {
+        this.outboxEventsRepository = outboxEventsRepository;
+        this.leaseService = leaseService;
+        this.sinks = sinks;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.retention = retention;
+        this.leaseTtl = leaseTtl;
+
+        this.thread = new Thread(this::run, "outbox-relay");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Yangi hodisalar commit qilindi — relay poll oralig'ini kutmaydi.
+     */
+    public void wake() {
+        wakeups.release();
+    }
+
+    /* =========================
+       RELAY LOOP
+       ========================= */
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("Outbox relay disabled on this instance");
+            return;
+        }
+        log.info("Outbox relay started: sinks={}", sinks.stream().map(OutboxSink::name).toList());
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        // Yetkazilmaganlar bazada qoladi — keyingi lease egasi yuboradi
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        if (leader) {
+            leaseService.release(LEASE);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                wakeups.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                // Bir nechta commit'ning uyg'otishlari bitta o'tishda qoplanadi
+                wakeups.drainPermits();
+                if (holdLease()) {
+                    drain();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Outbox relay iteration failed", e);
+            }
+        }
+    }
+
+    /**
+     * Navbat bo'shaguncha, birinchi xatogacha yoki lease yo'qolguncha yetkazadi.
+     */
+    int drain() {
+        int total = 0;
+        while (running) {
+            List<OutboxMessage> batch = outboxEventsRepository.findUnpublished(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                pending = 0;
+                break;
+            }
+
+            if (!deliver(batch)) {
+                // Xatodan keyin bitta COUNT — keyingi urinishgacha gauge shu qiymatda
+                pending = outboxEventsRepository.countByPublishedTimeIsNull();
+                break;
+            }
+
+            outboxEventsRepository.markPublished(batch.stream().map(OutboxMessage::id).toList(), LocalDateTime.now());
+            published.add(batch.size());
+            total += batch.size();
+
+            if (batch.size() < batchSize) {
+                pending = 0;
+                break;
+            }
+            // Keyingi paketdan oldin lease uzaytiriladi: uni boshqa instance olgan bo'lsa — to'xtaymiz
+            if (!holdLease()) break;
+        }
+        return total;
+    }
+
+    private boolean holdLease() {
+        boolean acquired = leaseService.tryAcquire(LEASE, leaseTtl);
+        if (acquired != leader) {
+            log.info(acquired ? "Outbox relay lease acquired" : "Outbox relay lease lost");
+            leader = acquired;
+        }
+        if (!acquired) {
+            pending = 0;
+        }
+        return acquired;
+    }
+
+    private boolean deliver(List<OutboxMessage> batch) {
+        long started = System.nanoTime();
+        try {
+            for (OutboxSink sink : sinks) {
+                sink.publish(batch);
+            }
+            return true;
+        } catch (Exception e) {
+            // Oldingi sink'lar paketni qayta oladi — shuning uchun ular idempotent
+            failed.add(batch.size());
+            log.warn("Outbox delivery failed, will retry: firstId={}, size={}",
+                    batch.get(0).id(), batch.size(), e);
+            return false;
+        } finally {
+            Timer timer = batchTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /* =========================
+       RETENTION
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval:PT1H}")
+    public void cleanup() {
+        if (!enabled || !leader) return;
+
+        int deleted = outboxEventsRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Published outbox events deleted: {}", deleted);
+        }
+    }
+
+    /* =========================
+       STATS
+       ========================= */
+
+    public long pending() {
+        return pending;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batchTimer = Timer.builder("fasthost.outbox.batch")
+                .description("Outbox paketini sink'larga yetkazish")
+                .register(registry);
+        Gauge.builder("fasthost.outbox.pending", this, OutboxRelay::pending)
+                .description("Yetkazilmagan outbox hodisalari")
+                .register(registry);
+
+        resultCounter(registry, "published", published);
+        resultCounter(registry, "failed", failed);
+    }
+
+    private static void resultCounter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("fasthost.outbox.events", adder, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+}
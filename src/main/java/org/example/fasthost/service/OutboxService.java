@@ -0,0 +1,118 @@
+package org.example.fasthost.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.fasthost.entity.Orders;
+import org.example.fasthost.entity.OutboxEvents;
+import org.example.fasthost.entity.dto.OrderEvent;
+import org.example.fasthost.entity.dto.OrderRef;
+import org.example.fasthost.entity.enums.OrderEventType;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.repository.OutboxEventsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox'ning yozish tomoni.
+ * Barcha metodlar chaqiruvchining tranzaksiyasida ishlaydi — hodisa buyurtma
+ * o'zgarishi bilan birga commit yoki rollback bo'ladi. Commit'dan keyin
+ * {@link OutboxRelay} uyg'otiladi, shuning uchun yetkazish poll oralig'ini kutmaydi.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventsRepository outboxEventsRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderEvent(Orders order, OrderEventType type) {
+        outboxEventsRepository.save(toEvent(order, type, LocalDateTime.now()));
+        wakeRelayAfterCommit();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderEvents(List<Orders> orders, OrderEventType type) {
+        if (orders.isEmpty()) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvents> events = new ArrayList<>(orders.size());
+        for (Orders order : orders) {
+            events.add(toEvent(order, type, now));
+        }
+        // Pooled sequence + JDBC batch: bitta flush'da
+        outboxEventsRepository.saveAll(events);
+        wakeRelayAfterCommit();
+    }
+
+    /**
+     * Bulk UPDATE bilan EXPIRED qilinganlar uchun (entity yuklanmagan).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void expiredEvents(List<OrderRef> orders, LocalDateTime now) {
+        statusEvents(orders, OrderEventType.EXPIRED, OrderStatus.EXPIRED, now);
+    }
+
+    /**
+     * To'lanmagani uchun bulk UPDATE bilan CANCELED qilinganlar uchun.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void canceledEvents(List<OrderRef> orders, LocalDateTime now) {
+        statusEvents(orders, OrderEventType.CANCELED, OrderStatus.CANCELED, now);
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private void statusEvents(List<OrderRef> orders, OrderEventType type, OrderStatus status, LocalDateTime now) {
+        if (orders.isEmpty()) return;
+
+        List<OutboxEvents> events = new ArrayList<>(orders.size());
+        for (OrderRef order : orders) {
+            OrderEvent payload = new OrderEvent(order.id(), order.userId(), type, status, null, null, null, now);
+            events.add(newEvent(order.id(), type, payload));
+        }
+        outboxEventsRepository.saveAll(events);
+        wakeRelayAfterCommit();
+    }
+
+    private OutboxEvents toEvent(Orders order, OrderEventType type, LocalDateTime now) {
+        OrderEvent payload = new OrderEvent(
+                order.getId(),
+                order.getUser().getId(),
+                type,
+                order.getStatus(),
+                order.getDurationDays(),
+                order.getTotalPrice(),
+                order.getEndTime(),
+                now
+        );
+        return newEvent(order.getId(), type, payload);
+    }
+
+    private OutboxEvents newEvent(Integer orderId, OrderEventType type, OrderEvent payload) {
+        return OutboxEvents.builder()
+                .orderId(orderId)
+                .type(type)
+                .payload(objectMapper.writeValueAsString(payload))
+                .build();
+    }
+
+    private void wakeRelayAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wake();
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.dto.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Outbox hodisalarini qabul qiluvchi (broker, webhook, in-process tinglovchilar).
+ * <p>
+ * {@link OutboxRelay} paketni id tartibida beradi; istisno otilsa paket
+ * yetkazilmagan hisoblanadi va keyinroq qaytadan beriladi — implementatsiya
+ * takroriy xabarlarga chidamli bo'lishi kerak.
+ */
+public interface OutboxSink {
+
+    String name();
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
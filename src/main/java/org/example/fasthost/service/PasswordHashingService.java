@@ -0,0 +1,292 @@
+package org.example.fasthost.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.repository.UsersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt hash/tekshirish alohida, chegaralangan pool'da bajariladi.
+ * <p>
+ * So'rov thread'lari faqat natijani kutadi: login to'lqini Tomcat (yoki virtual thread
+ * carrier) resurslarini band qilmaydi. Navbat to'lsa ish darhol rad etiladi
+ * ({@link HashingBusyException}) — foydalanuvchiga "qayta urinib ko'ring" qaytadi.
+ * <p>
+ * Cost ishga tushishda maqsadli kechikishga moslab tanlanadi; boshqa cost bilan
+ * saqlangan hash'lar muvaffaqiyatli login'dan keyin fonda qayta hash'lanadi.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements MeterBinder {
+
+    private static final int MIN_COST = 10;
+    private static final int MAX_COST = 16;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final UsersRepository usersRepository;
+    private final ThreadPoolExecutor executor;
+    private final Duration targetLatency;
+    private final Duration waitTimeout;
+    private final int configuredCost;
+
+    private volatile int cost;
+    private volatile BCryptPasswordEncoder encoder;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+
+    private volatile Timer hashTimer;
+    private volatile Timer matchTimer;
+
+    public PasswordHashingService(UsersRepository usersRepository,
+                                  @Value("${app.password.threads:0}") int threads,
+                                  @Value("${app.password.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.password.target-latency:250ms}") Duration targetLatency,
+                                  @Value("${app.password.wait-timeout:5s}") Duration waitTimeout,
+                                  @Value("${app.password.cost:0}") int configuredCost) {
+        this.usersRepository = usersRepository;
+        this.targetLatency = targetLatency;
+        this.waitTimeout = waitTimeout;
+        this.configuredCost = configuredCost;
+
+        // CPU ishi: platform thread'lar, yadrolar sonidan oshmaydi
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /* =========================
+       CALIBRATION
+       ========================= */
+
+    @PostConstruct
+    public void calibrate() {
+        // Sozlangan cost — pastki chegara: kalibrlash faqat undan yuqoriga ko'tara oladi
+        int floor = Math.max(MIN_COST, Math.min(configuredCost, MAX_COST));
+        int selected = measureCost(floor);
+        this.cost = selected;
+        this.encoder = new BCryptPasswordEncoder(selected);
+        log.info("BCrypt cost: {} (target={}ms, threads={}, queue={})",
+                selected, targetLatency.toMillis(), executor.getCorePoolSize(),
+                executor.getQueue().remainingCapacity());
+    }
+
+    /**
+     * Maqsadli kechikishdan oshmaydigan eng katta cost (kamida {@code floor}).
+     * Har bir qadam vaqtni ikki barobar oshiradi, shuning uchun o'lchash qisqa.
+     */
+    private int measureCost(int floor) {
+        long targetNanos = targetLatency.toNanos();
+        int selected = floor;
+
+        // JIT qizishi uchun bitta bo'sh o'lchash
+        new BCryptPasswordEncoder(MIN_COST).encode(CALIBRATION_PASSWORD);
+
+        for (int candidate = floor; candidate <= MAX_COST; candidate++) {
+            BCryptPasswordEncoder probe = new BCryptPasswordEncoder(candidate);
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            long elapsed = System.nanoTime() - start;
+
+            if (elapsed > targetNanos) break;
+            selected = candidate;
+
+            // Keyingi cost ~2x sekinroq: aniq oshib ketishini oldindan bilamiz
+            if (elapsed * 2 > targetNanos) break;
+        }
+        return selected;
+    }
+
+    /* =========================
+       HASH / MATCH
+       ========================= */
+
+    public String hash(String rawPassword) {
+        BCryptPasswordEncoder current = encoder;
+        return submit(() -> current.encode(rawPassword), hashTimer);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        // Tekshirish hash ichidagi cost bilan bo'ladi — istalgan encoder mos
+        BCryptPasswordEncoder current = encoder;
+        return submit(() -> current.matches(rawPassword, encodedPassword), matchTimer);
+    }
+
+    /**
+     * Hash joriy cost'dan farq qilsa, fonda qayta hash'lab saqlaydi.
+     * Pool band bo'lsa o'tkazib yuboriladi — keyingi login'da yana urinamiz.
+     */
+    public void rehashIfNeeded(Integer userId, String rawPassword, String encodedPassword) {
+        if (!needsRehash(encodedPassword)) {
+            return;
+        }
+
+        BCryptPasswordEncoder current = encoder;
+        int targetCost = cost;
+        try {
+            executor.execute(() -> {
+                try {
+                    String upgraded = current.encode(rawPassword);
+                    if (usersRepository.updatePassword(userId, encodedPassword, upgraded) > 0) {
+                        rehashed.increment();
+                        log.info("Parol hash'i yangilandi: user={}, cost={}", userId, targetCost);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Parolni qayta hash'lash bajarilmadi: user={}", userId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Rehash o'tkazib yuborildi (pool band): user={}", userId);
+        }
+    }
+
+    boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && costOf(encodedPassword) != cost;
+    }
+
+    // $2a$12$... — cost 4-5 belgilarda
+    private static int costOf(String encodedPassword) {
+        if (encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // Timer — navbatda kutish ham kiradi (foydalanuvchi ko'radigan kechikish)
+    private <T> T submit(Callable<T> task, Timer timer) {
+        long started = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+
+        try {
+            T result = future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (timer != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parolni hash'lashda xato", e.getCause());
+        }
+    }
+
+    // Kutish oynasi tugaguncha navbat bo'shashi kutiladi
+    private HashingBusyException busy() {
+        return new HashingBusyException(Math.max(1, (waitTimeout.toMillis() + 999) / 1000));
+    }
+
+    /* =========================
+       STATS
+       ========================= */
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        hashTimer = Timer.builder("fasthost.password")
+                .tag("operation", "hash")
+                .register(registry);
+        matchTimer = Timer.builder("fasthost.password")
+                .tag("operation", "match")
+                .register(registry);
+        Gauge.builder("fasthost.password.queue", this, PasswordHashingService::queueSize)
+                .register(registry);
+        Gauge.builder("fasthost.password.active", this, PasswordHashingService::activeCount)
+                .register(registry);
+        Gauge.builder("fasthost.password.cost", this, PasswordHashingService::cost)
+                .register(registry);
+        FunctionCounter.builder("fasthost.password.rejected", rejected, LongAdder::sum)
+                .description("Pool band bo'lgani uchun rad etilgan hash/tekshirishlar")
+                .register(registry);
+        FunctionCounter.builder("fasthost.password.rehashed", rehashed, LongAdder::sum)
+                .register(registry);
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int activeCount() {
+        return executor.getActiveCount();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long rehashedCount() {
+        return rehashed.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Hash pool'i to'lgan — so'rovni keyinroq takrorlash kerak.
+     */
+    public static class HashingBusyException extends RuntimeException {
+
+        private final long retryAfterSeconds;
+
+        public HashingBusyException(long retryAfterSeconds) {
+            super("Server band, birozdan so'ng qayta urinib ko'ring");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        /** Retry-After sarlavhasi uchun */
+        public long retryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+}
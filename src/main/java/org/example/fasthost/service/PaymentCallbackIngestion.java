@@ -0,0 +1,314 @@
+package org.example.fasthost.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.dto.Response;
+import org.example.fasthost.repository.PaymentCallbacksRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * To'lov callback'larini qabul qilish.
+ * <p>
+ * {@link #accept} faqat imzosi tekshirilgan callback uchun chaqiriladi
+ * ({@code PaymentCallbackController}, {@link PaymentSignatureVerifier}): paymentId
+ * foydalanuvchiga ko'rinadi va o'zi to'lov isboti emas.
+ * <p>
+ * So'rov yo'lida faqat bitta dedupe INSERT (payment_callbacks, payment_id bo'yicha):
+ * yangi bo'lsa navbatga qo'yiladi va darhol javob qaytadi, takror bo'lsa hech narsa
+ * qilinmaydi. Buyurtmani faollashtirish — worker'larda, paket bilan
+ * ({@link OrdersService#confirmPayments}).
+ * <p>
+ * Har bir paymentId hash bo'yicha doim bitta "lane"ga tushadi: bitta buyurtma
+ * callback'lari hech qachon parallel qo'llanmaydi. Navbat to'lsa yoki jarayon
+ * to'xtasa, RECEIVED qatorlar {@link #recover()} bilan qayta navbatga qo'yiladi.
+ * <p>
+ * Paket xato bilan tugasa, uning elementlari birma-bir qo'llanadi — bitta buzuq
+ * callback qolganlarini to'sib qo'ymaydi. Xato bergan callback'ning urinishlari
+ * sanaladi va {@code max-attempts}'dan keyin u FAILED bo'ladi.
+ */
+@Component
+@Slf4j
+public class PaymentCallbackIngestion implements MeterBinder {
+
+    private static final int MAX_PAYMENT_ID_LENGTH = 100;
+
+    private final PaymentCallbacksRepository callbacksRepository;
+    private final OrdersService ordersService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration recoverAfter;
+    private final Lane[] lanes;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+
+    private volatile Timer batchTimer;
+    private volatile boolean running = true;
+
+    public PaymentCallbackIngestion(PaymentCallbacksRepository callbacksRepository,
+                                    OrdersService ordersService,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${app.payments.workers:4}") int workers,
+                                    @Value("${app.payments.batch-size:100}") int batchSize,
+                                    @Value("${app.payments.max-attempts:5}") int maxAttempts,
+                                    @Value("${app.payments.queue-capacity:10000}") int queueCapacity,
+                                    @Value("${app.payments.recover-after:PT30S}") Duration recoverAfter) {
+        this.callbacksRepository = callbacksRepository;
+        this.ordersService = ordersService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.recoverAfter = recoverAfter;
+
+        this.lanes = new Lane[workers];
+        int laneCapacity = Math.max(1, queueCapacity / workers);
+        for (int i = 0; i < workers; i++) {
+            lanes[i] = new Lane(i, laneCapacity);
+        }
+    }
+
+    /* =========================
+       ACCEPT (REQUEST PATH)
+       ========================= */
+
+    public Response<Void> accept(String paymentId) {
+        if (paymentId == null || paymentId.isBlank() || paymentId.length() > MAX_PAYMENT_ID_LENGTH) {
+            return Response.error("Noto'g'ri paymentId");
+        }
+
+        // Commit'dan keyin javob qaytadi: ack berilgan callback bazada bor
+        if (!insertIfAbsent(paymentId)) {
+            duplicates.increment();
+            return Response.success();
+        }
+
+        accepted.increment();
+        enqueue(paymentId);
+        return Response.success();
+    }
+
+    private boolean insertIfAbsent(String paymentId) {
+        try {
+            return callbacksRepository.insertIfAbsent(paymentId, LocalDateTime.now()) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // Xuddi shu callback parallel so'rovda birinchi yozildi
+            return false;
+        }
+    }
+
+    private void enqueue(String paymentId) {
+        Lane lane = lanes[Math.floorMod(paymentId.hashCode(), lanes.length)];
+        if (!lane.queue.offer(paymentId)) {
+            // Bazada RECEIVED bo'lib qoladi — recover() oladi
+            overflowed.increment();
+        }
+    }
+
+    /* =========================
+       RECOVERY
+       ========================= */
+
+    // Oldingi ishga tushishdan qolgan barcha RECEIVED'lar
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        int requeued = requeueReceivedBefore(LocalDateTime.now());
+        if (requeued > 0) {
+            log.info("Payment callbacks recovered on startup: {}", requeued);
+        }
+    }
+
+    // Navbatdan tushib qolganlar: qayta qo'llash zararsiz (ACTIVE -> o'zgarishsiz)
+    @Scheduled(fixedDelayString = "${app.payments.recover-interval:PT30S}")
+    public void recover() {
+        int requeued = requeueReceivedBefore(LocalDateTime.now().minus(recoverAfter));
+        if (requeued > 0) {
+            log.warn("Stale payment callbacks requeued: {}", requeued);
+        }
+    }
+
+    private int requeueReceivedBefore(LocalDateTime before) {
+        List<String> paymentIds = callbacksRepository.findReceivedBefore(before, Limit.of(batchSize * lanes.length));
+        paymentIds.forEach(this::enqueue);
+        return paymentIds.size();
+    }
+
+    /* =========================
+       WORKERS
+       ========================= */
+
+    @PostConstruct
+    public void start() {
+        for (Lane lane : lanes) {
+            lane.thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+        // Navbatda qolganlar bazada RECEIVED — keyingi ishga tushishda qo'llanadi
+        for (Lane lane : lanes) {
+            lane.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void apply(List<String> batch) {
+        long started = System.nanoTime();
+        try {
+            confirm(batch);
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                recordFailure(batch.get(0), e);
+            } else {
+                log.warn("Payment batch failed, applying one by one: size={}", batch.size(), e);
+                for (String paymentId : batch) {
+                    try {
+                        confirm(List.of(paymentId));
+                    } catch (Exception single) {
+                        recordFailure(paymentId, single);
+                    }
+                }
+            }
+        } finally {
+            Timer timer = batchTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void confirm(List<String> paymentIds) {
+        OrdersService.PaymentBatch result = ordersService.confirmPayments(paymentIds);
+        applied.add(result.applied());
+        rejected.add(result.rejected());
+    }
+
+    // RECEIVED bo'lib qoladi (recover() qayta oladi), chegaradan keyin — FAILED
+    private void recordFailure(String paymentId, Exception cause) {
+        failed.increment();
+        try {
+            Integer gaveUp = transactionTemplate.execute(status -> {
+                List<String> ids = List.of(paymentId);
+                callbacksRepository.incrementAttempts(ids);
+                return callbacksRepository.markFailed(ids, maxAttempts, LocalDateTime.now());
+            });
+            if (gaveUp != null && gaveUp > 0) {
+                abandoned.increment();
+                log.error("Payment callback failed {} times, marked FAILED: paymentId={}",
+                        maxAttempts, paymentId, cause);
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Payment callback attempt not recorded: paymentId={}", paymentId, e);
+        }
+        log.error("Payment callback failed, will be recovered: paymentId={}", paymentId, cause);
+    }
+
+    private final class Lane implements Runnable {
+
+        final BlockingQueue<String> queue;
+        final Thread thread;
+
+        Lane(int index, int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "payment-lane-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (running) {
+                try {
+                    String first = queue.poll(1, TimeUnit.SECONDS);
+                    if (first == null) continue;
+
+                    // Yuklama ostida navbat o'zi to'planadi — kutmasdan yig'amiz
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    apply(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    /* =========================
+       STATS
+       ========================= */
+
+    public int queued() {
+        int total = 0;
+        for (Lane lane : lanes) {
+            total += lane.queue.size();
+        }
+        return total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        batchTimer = Timer.builder("fasthost.payments.batch")
+                .description("To'lov callback'lari paketini qo'llash")
+                .register(registry);
+        Gauge.builder("fasthost.payments.queue", this, PaymentCallbackIngestion::queued)
+                .description("Qo'llanishini kutayotgan callback'lar")
+                .register(registry);
+
+        callbackCounter(registry, "accepted", accepted);
+        callbackCounter(registry, "duplicate", duplicates);
+        callbackCounter(registry, "overflow", overflowed);
+
+        resultCounter(registry, "applied", applied);
+        resultCounter(registry, "rejected", rejected);
+        resultCounter(registry, "failed", failed);
+        resultCounter(registry, "abandoned", abandoned);
+    }
+
+    private static void callbackCounter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("fasthost.payments.callbacks", adder, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void resultCounter(MeterRegistry registry, String result, LongAdder adder) {
+        FunctionCounter.builder("fasthost.payments.processed", adder, LongAdder::sum)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.fasthost.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * To'lov provayderi callback'ining imzosi: {@code hex(HMAC-SHA256(secret, body))}
+ * {@value #HEADER} sarlavhasida.
+ * <p>
+ * Foydalanuvchi o'z buyurtmasining paymentId'sini biladi (to'lov havolasida), shuning
+ * uchun to'lov isboti — faqat provayder bilan umumiy maxfiy kalit bilan imzolangan
+ * tana. Kalit berilmagan bo'lsa hech bir callback qabul qilinmaydi.
+ */
+@Component
+@Slf4j
+public class PaymentSignatureVerifier implements MeterBinder {
+
+    public static final String HEADER = "X-Payment-Signature";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private final SecretKeySpec secretKey;
+    // ThreadLocal emas: virtual thread'lar qayta ishlatilmaydi (SignedTokenService bilan bir xil)
+    private final ConcurrentLinkedQueue<Mac> macs = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public PaymentSignatureVerifier(@Value("${app.payments.callback-secret:}") String secret) {
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0) {
+            this.secretKey = null;
+            log.warn("app.payments.callback-secret berilmagan: to'lov callback'lari rad etiladi");
+        } else if (key.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("app.payments.callback-secret kamida " + MIN_SECRET_BYTES + " bayt bo'lishi kerak");
+        } else {
+            this.secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        }
+    }
+
+    /**
+     * Imzo tanaga mos bo'lsa {@code true}; kalit yo'q, sarlavha yo'q yoki buzuq bo'lsa {@code false}.
+     */
+    public boolean verify(byte[] body, String signature) {
+        if (secretKey == null || body == null || signature == null) {
+            rejected.increment();
+            return false;
+        }
+
+        byte[] expected;
+        try {
+            expected = HexFormat.of().parseHex(signature.trim());
+        } catch (IllegalArgumentException e) {
+            rejected.increment();
+            return false;
+        }
+
+        if (!MessageDigest.isEqual(expected, sign(body))) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tana uchun imzo (hex) — provayder tomoni va testlar uchun.
+     */
+    public String signature(byte[] body) {
+        return HexFormat.of().formatHex(sign(body));
+    }
+
+    private byte[] sign(byte[] body) {
+        Mac mac = macs.poll();
+        if (mac == null) {
+            mac = newMac();
+        }
+        try {
+            return mac.doFinal(body);
+        } finally {
+            macs.offer(mac);
+        }
+    }
+
+    private Mac newMac() {
+        if (secretKey == null) {
+            throw new IllegalStateException("app.payments.callback-secret berilmagan");
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC ishga tushmadi", e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("fasthost.payments.callbacks", rejected, LongAdder::sum)
+                .tag("result", "unsigned")
+                .register(registry);
+    }
+}
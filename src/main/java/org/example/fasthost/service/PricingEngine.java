@@ -0,0 +1,141 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.Tariffs;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Narx hisoblash: summalar tiyinda (1 so'm = 100 tiyin) {@code long} sifatida.
+ * <p>
+ * Har bir tarif uchun 1..{@link #MAX_DAYS} kunlik umumiy narxlar jadvali
+ * {@link TariffCatalog} snapshot'idan oldindan hisoblanadi; narx so'rash —
+ * bitta massiv o'qish, hech qanday obyekt yaratilmaydi. Katalog versiyasi
+ * o'zgarganda jadval birinchi murojaatda qayta quriladi va atomik almashtiriladi.
+ * <p>
+ * {@link BigDecimal} faqat chegarada: entity'ga yozish va JSON javobi uchun.
+ */
+@Component
+public class PricingEngine {
+
+    public static final int MAX_DAYS = 1095;
+
+    /** Tarif topilmadi yoki muddat noto'g'ri */
+    public static final long NO_PRICE = -1;
+
+    private static final int MINOR_SCALE = 2;
+    private static final long FULL_BP = 10_000;
+
+    // Chegirma pog'onalari (kamayish tartibida): kamida N kun -> narxning necha bazis punkti
+    private static final int[] TIER_DAYS = {365, 180, 90};
+    private static final int[] TIER_BP = {8_500, 9_000, 9_500};
+
+    private final TariffCatalog tariffCatalog;
+    private final AtomicReference<Tables> tables = new AtomicReference<>(Tables.EMPTY);
+
+    public PricingEngine(TariffCatalog tariffCatalog) {
+        this.tariffCatalog = tariffCatalog;
+    }
+
+    /* =========================
+       QUOTE
+       ========================= */
+
+    /**
+     * Umumiy narx tiyinda yoki {@link #NO_PRICE}.
+     * Nofaol tariflar ham narxlanadi (uzaytirish uchun) — faollikni chaqiruvchi tekshiradi.
+     */
+    public long totalMinor(Integer tariffId, int days) {
+        if (days <= 0 || days > MAX_DAYS) {
+            return NO_PRICE;
+        }
+        long[] totals = tables().byTariff().get(tariffId);
+        return totals == null ? NO_PRICE : totals[days];
+    }
+
+    /**
+     * Entity'ga yoziladigan summa (so'mda, 2 xona).
+     */
+    public BigDecimal total(Integer tariffId, int days) {
+        long minor = totalMinor(tariffId, days);
+        if (minor == NO_PRICE) {
+            throw new IllegalArgumentException("Narx yo'q: tariff=" + tariffId + ", days=" + days);
+        }
+        return toMajor(minor);
+    }
+
+    public long version() {
+        return tables().version();
+    }
+
+    public static int discountBp(int days) {
+        for (int i = 0; i < TIER_DAYS.length; i++) {
+            if (days >= TIER_DAYS[i]) {
+                return TIER_BP[i];
+            }
+        }
+        return (int) FULL_BP;
+    }
+
+    public static BigDecimal toMajor(long minor) {
+        return BigDecimal.valueOf(minor, MINOR_SCALE);
+    }
+
+    public static long toMinor(Double price) {
+        return BigDecimal.valueOf(price)
+                .setScale(MINOR_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * Bitta narx formulasi: kunlik narx x kun x chegirma, yarim tiyin yuqoriga yaxlitlanadi.
+     * Public: benchmarks/ modulidagi JMH o'lchovi ham shu metodni chaqiradi.
+     */
+    public static long computeMinor(long dailyMinor, int days) {
+        return (Math.multiplyExact(Math.multiplyExact(dailyMinor, days), discountBp(days)) + FULL_BP / 2) / FULL_BP;
+    }
+
+    /* =========================
+       TABLES
+       ========================= */
+
+    private Tables tables() {
+        Tables current = tables.get();
+        TariffCatalog.Snapshot snapshot = tariffCatalog.current();
+        if (current.version() == snapshot.version()) {
+            return current;
+        }
+
+        // Parallel qayta qurish zararsiz: natija bir xil, oxirgisi yoziladi
+        Tables rebuilt = Tables.of(snapshot);
+        tables.set(rebuilt);
+        return rebuilt;
+    }
+
+    /**
+     * Tarif bo'yicha oldindan hisoblangan narxlar: {@code byTariff.get(id)[days]}.
+     * Public: benchmarks/ moduli so'rov yo'lidagi o'qishni shu jadvalda o'lchaydi.
+     */
+    public record Tables(long version, Map<Integer, long[]> byTariff) {
+
+        static final Tables EMPTY = new Tables(-1, Map.of());
+
+        public static Tables of(TariffCatalog.Snapshot snapshot) {
+            Map<Integer, long[]> byTariff = new HashMap<>();
+            for (Tariffs tariff : snapshot.byId().values()) {
+                long dailyMinor = toMinor(tariff.getPrice());
+                long[] totals = new long[MAX_DAYS + 1];
+                for (int days = 1; days <= MAX_DAYS; days++) {
+                    totals[days] = computeMinor(dailyMinor, days);
+                }
+                byTariff.put(tariff.getId(), totals);
+            }
+            return new Tables(snapshot.version(), Map.copyOf(byTariff));
+        }
+    }
+}
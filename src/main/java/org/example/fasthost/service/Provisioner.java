@@ -0,0 +1,43 @@
+package org.example.fasthost.service;
+
+import java.util.List;
+
+/**
+ * Hosting akkauntlarini yaratuvchi backend (panel API, agent va h.k.).
+ * <p>
+ * {@link HostingProvisioningService} paketni beradi va bir vaqtda ko'pi bilan
+ * {@code app.provisioning.concurrency} ta paketni parallel chaqiradi. Har bir
+ * akkaunt uchun natija qaytariladi; istisno otilsa butun paket qayta urinishga ketadi.
+ * Bir xil buyurtma takror kelishi mumkin — implementatsiya idempotent bo'lishi kerak.
+ */
+public interface Provisioner {
+
+    String name();
+
+    List<Result> provision(List<Account> accounts) throws Exception;
+
+    /**
+     * @param password ochiq parol — backend akkauntga o'rnatadi; bizda faqat hash saqlanadi
+     */
+    record Account(Integer orderId, Integer tariffId, String login, String password, String domainName) {
+    }
+
+    /**
+     * @param login backend boshqa login bergan bo'lsa — o'sha, aks holda so'ralgani
+     * @param error {@code null} — muvaffaqiyatli
+     */
+    record Result(Integer orderId, String login, String error) {
+
+        public static Result ok(Account account) {
+            return new Result(account.orderId(), account.login(), null);
+        }
+
+        public static Result failed(Account account, String error) {
+            return new Result(account.orderId(), account.login(), error);
+        }
+
+        public boolean succeeded() {
+            return error == null;
+        }
+    }
+}
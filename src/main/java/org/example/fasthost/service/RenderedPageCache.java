@@ -0,0 +1,164 @@
+package org.example.fasthost.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.fasthost.entity.Users;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Faqat tariflar katalogiga bog'liq sahifalar (/, /hosting) uchun tayyor HTML keshi.
+ * <p>
+ * Kalit: shablon, katalog versiyasi va foydalanuvchi kirganmi — katalog
+ * o'zgarganda eski yozuvlar shunchaki ishlatilmay qoladi. Foydalanuvchiga xos
+ * sarlavha qismi ({@code fragments/user-header}) har so'rovda alohida render
+ * qilinib, sahifadagi {@link #USER_HEADER_MARKER} o'rniga qo'yiladi.
+ * <p>
+ * ETag — yakuniy baytlardan (sahifa + sarlavha), shuning uchun kuchli (strong);
+ * mos {@code If-None-Match} kelsa 304 qaytadi va tana yig'ilmaydi.
+ */
+@Component
+public class RenderedPageCache implements MeterBinder {
+
+    public static final String USER_HEADER_MARKER = "<!--fasthost:user-header-->";
+
+    private static final String USER_HEADER_TEMPLATE = "fragments/user-header";
+    private static final Set<String> USER_HEADER_SELECTOR = Set.of("chip");
+    private static final Locale LOCALE = Locale.forLanguageTag("uz");
+    private static final MediaType HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private final ITemplateEngine templateEngine;
+    private final TariffCatalog tariffCatalog;
+    private final Cache<PageKey, Page> pages;
+
+    public RenderedPageCache(ITemplateEngine templateEngine,
+                             TariffCatalog tariffCatalog,
+                             @Value("${app.page-cache.max-size:64}") long maxSize) {
+        this.templateEngine = templateEngine;
+        this.tariffCatalog = tariffCatalog;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Sahifani keshdan (yoki bir marta render qilib) qaytaradi.
+     * {@code variables} faqat kesh bo'sh bo'lganda chaqiriladi va foydalanuvchiga
+     * bog'liq qiymatlarni o'z ichiga olmasligi kerak.
+     */
+    public ResponseEntity<byte[]> render(String template,
+                                         Supplier<Map<String, Object>> variables,
+                                         Users user,
+                                         WebRequest request) {
+        boolean authenticated = user != null;
+        PageKey key = new PageKey(template, tariffCatalog.version(), authenticated);
+        Page page = pages.get(key, k -> renderShared(k, variables.get()));
+
+        byte[] header = page.hasUserHeader() && authenticated ? renderUserHeader(user) : new byte[0];
+        String etag = header.length == 0
+                ? "\"" + page.digest() + "\""
+                : "\"" + page.digest() + "-" + digest(header) + "\"";
+
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        CacheControl cacheControl = authenticated
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.noCache();
+
+        return ResponseEntity.ok()
+                .contentType(HTML_UTF8)
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .body(page.assemble(header));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages, "pages");
+    }
+
+    /* =========================
+       RENDER
+       ========================= */
+
+    private Page renderShared(PageKey key, Map<String, Object> variables) {
+        Context context = new Context(LOCALE, variables);
+        context.setVariable("authenticated", key.authenticated());
+        String html = templateEngine.process(key.template(), context);
+
+        int marker = html.indexOf(USER_HEADER_MARKER);
+        if (marker < 0) {
+            return Page.of(html.getBytes(StandardCharsets.UTF_8), new byte[0], false);
+        }
+        return Page.of(
+                html.substring(0, marker).getBytes(StandardCharsets.UTF_8),
+                html.substring(marker + USER_HEADER_MARKER.length()).getBytes(StandardCharsets.UTF_8),
+                true);
+    }
+
+    private byte[] renderUserHeader(Users user) {
+        Context context = new Context(LOCALE);
+        context.setVariable("user", user);
+        return templateEngine.process(USER_HEADER_TEMPLATE, USER_HEADER_SELECTOR, context)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String digest(byte[]... parts) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (byte[] part : parts) {
+                sha256.update(part);
+            }
+            // 128 bit yetarli: ETag faqat bir xil URL javoblarini farqlaydi
+            return HexFormat.of().formatHex(sha256.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /* =========================
+       ENTRIES
+       ========================= */
+
+    record PageKey(String template, long catalogVersion, boolean authenticated) {
+    }
+
+    record Page(byte[] prefix, byte[] suffix, boolean hasUserHeader, String digest) {
+
+        static Page of(byte[] prefix, byte[] suffix, boolean hasUserHeader) {
+            return new Page(prefix, suffix, hasUserHeader, RenderedPageCache.digest(prefix, suffix));
+        }
+
+        byte[] assemble(byte[] header) {
+            if (header.length == 0 && suffix.length == 0) {
+                return prefix;
+            }
+            byte[] body = new byte[prefix.length + header.length + suffix.length];
+            System.arraycopy(prefix, 0, body, 0, prefix.length);
+            System.arraycopy(header, 0, body, prefix.length, header.length);
+            System.arraycopy(suffix, 0, body, prefix.length + header.length, suffix.length);
+            return body;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.example.fasthost.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.UserSessions;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.repository.UserSessionsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Ko'p qurilmali sessiyalar: har bir kirish alohida {@code user_sessions} qatori.
+ * Bazada faqat SHA-256(token) saqlanadi.
+ */
+@Service
+@Slf4j
+public class SessionService {
+
+    private static final int USER_AGENT_MAX_LENGTH = 255;
+
+    private final UserSessionsRepository sessionsRepository;
+    private final IdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration idleTimeout;
+    private final Duration maxLifetime;
+    private final Duration touchInterval;
+    private final int purgeBatchSize;
+
+    public SessionService(UserSessionsRepository sessionsRepository,
+                          IdGenerator idGenerator,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.session.idle-timeout:2d}") Duration idleTimeout,
+                          @Value("${app.cookie.max-age:604800}") long maxLifetimeSeconds,
+                          @Value("${app.session.touch-interval:15m}") Duration touchInterval,
+                          @Value("${app.session.purge-batch-size:1000}") int purgeBatchSize) {
+        this.sessionsRepository = sessionsRepository;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.idleTimeout = idleTimeout;
+        this.maxLifetime = Duration.ofSeconds(maxLifetimeSeconds);
+        this.touchInterval = touchInterval;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /* =========================
+       CREATE
+       ========================= */
+
+    /**
+     * Yangi sessiya ochadi va cookie uchun xom tokenni qaytaradi.
+     */
+    @Transactional
+    public String create(Users user, HttpServletRequest request) {
+        String token = idGenerator.token();
+        LocalDateTime now = LocalDateTime.now();
+
+        UserSessions session = UserSessions.builder()
+                .user(user)
+                .tokenHash(hash(token))
+                .lastSeenAt(now)
+                .expiresAt(min(now.plus(idleTimeout), now.plus(maxLifetime)))
+                .absoluteExpiresAt(now.plus(maxLifetime))
+                .userAgent(truncate(request.getHeader("User-Agent")))
+                .ipAddress(request.getRemoteAddr())
+                .build();
+
+        sessionsRepository.save(session);
+        return token;
+    }
+
+    /* =========================
+       RESOLVE (har bir so'rov)
+       ========================= */
+
+    @Transactional
+    public Optional<ActiveSession> resolve(String token) {
+        UserSessions session = sessionsRepository.findByTokenHash(hash(token)).orElse(null);
+        if (session == null) {
+            return Optional.empty();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!session.getExpiresAt().isAfter(now)) {
+            return Optional.empty();
+        }
+
+        // Har so'rovda yozmaslik uchun faqat touchInterval o'tganda uzaytiramiz
+        LocalDateTime expiresAt = session.getExpiresAt();
+        if (session.getLastSeenAt().plus(touchInterval).isBefore(now)) {
+            expiresAt = min(now.plus(idleTimeout), session.getAbsoluteExpiresAt());
+            sessionsRepository.touch(session.getId(), now, expiresAt);
+        }
+
+        return Optional.of(new ActiveSession(session.getUser(), expiresAt));
+    }
+
+    /* =========================
+       REVOKE
+       ========================= */
+
+    @Transactional
+    public void revoke(String token) {
+        if (token == null) return;
+        sessionsRepository.deleteByTokenHash(hash(token));
+    }
+
+    @Transactional
+    public void revokeAll(Integer userId) {
+        int deleted = sessionsRepository.deleteAllByUserId(userId);
+        log.info("Sessiyalar yopildi: user={}, count={}", userId, deleted);
+    }
+
+    /* =========================
+       PURGE (background)
+       ========================= */
+
+    @Scheduled(fixedDelayString = "${app.session.purge-interval:PT10M}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long total = 0;
+        int deleted;
+
+        // Har bir bo'lak alohida tranzaksiyada — uzun lock bo'lmaydi
+        do {
+            Integer batch = transactionTemplate.execute(
+                    status -> sessionsRepository.deleteExpiredBatch(now, purgeBatchSize));
+            deleted = batch == null ? 0 : batch;
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        if (total > 0) {
+            log.info("Expired sessions purged: {}", total);
+        }
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 mavjud emas", e);
+        }
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static String truncate(String userAgent) {
+        if (userAgent == null || userAgent.length() <= USER_AGENT_MAX_LENGTH) {
+            return userAgent;
+        }
+        return userAgent.substring(0, USER_AGENT_MAX_LENGTH);
+    }
+
+    public record ActiveSession(Users user, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.fasthost.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.UsersRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Imzolangan (HMAC-SHA256) AUTH_TOKEN.
+ * <p>
+ * Format: {@code base64url(uid.role.iat.exp.ver) + "." + base64url(hmac)}.
+ * Tekshirish faqat CPU ishi — bazaga murojaat yo'q. Bekor qilish foydalanuvchi
+ * bo'yicha token versiyasini oshirish orqali bo'ladi: versiyalar xotirada
+ * saqlanadi va ishga tushishda {@code users.token_version} dan yuklanadi.
+ */
+@Service
+@Slf4j
+public class SignedTokenService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final UsersRepository usersRepository;
+    private final boolean enabled;
+    private final long ttlSeconds;
+    private final SecretKeySpec secretKey;
+    // ThreadLocal emas: virtual thread'lar qayta ishlatilmaydi, har so'rovda yangi Mac bo'lib qolardi
+    private final ConcurrentLinkedQueue<Mac> macs = new ConcurrentLinkedQueue<>();
+
+    /** userId -> joriy token versiyasi (0 bo'lsa map'da saqlanmaydi) */
+    private final ConcurrentHashMap<Integer, Integer> tokenVersions = new ConcurrentHashMap<>();
+
+    public SignedTokenService(UsersRepository usersRepository,
+                              @Value("${app.cookie.mode:opaque}") String mode,
+                              @Value("${app.cookie.secret:}") String secret,
+                              @Value("${app.cookie.max-age:604800}") long ttlSeconds) {
+        this.usersRepository = usersRepository;
+        this.enabled = "signed".equalsIgnoreCase(mode);
+        this.ttlSeconds = ttlSeconds;
+
+        if (enabled && secret.getBytes(StandardCharsets.UTF_8).length < 32) {
+            throw new IllegalStateException("app.cookie.secret kamida 32 bayt bo'lishi kerak (app.cookie.mode=signed)");
+        }
+
+        this.secretKey = enabled
+                ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM)
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTokenVersions() {
+        if (!enabled) return;
+
+        for (Users user : usersRepository.findByTokenVersionGreaterThan(0)) {
+            tokenVersions.put(user.getId(), user.getTokenVersion());
+        }
+        log.info("Token versiyalari yuklandi: {}", tokenVersions.size());
+    }
+
+    /* =========================
+       ISSUE / VERIFY
+       ========================= */
+
+    public String issue(Users user) {
+        long now = Instant.now().getEpochSecond();
+        String payload = user.getId() + "." + user.getRole() + "." + now + "." + (now + ttlSeconds)
+                + "." + currentVersion(user.getId());
+
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.US_ASCII));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    public Optional<TokenClaims> verify(String token) {
+        if (!enabled || token == null) {
+            return Optional.empty();
+        }
+
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+
+        String encodedPayload = token.substring(0, dot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+                return Optional.empty();
+            }
+
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length != 5) {
+                return Optional.empty();
+            }
+
+            TokenClaims claims = new TokenClaims(
+                    Integer.valueOf(parts[0]),
+                    Role.valueOf(parts[1]),
+                    Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]),
+                    Integer.parseInt(parts[4])
+            );
+
+            if (claims.expiresAt() <= Instant.now().getEpochSecond()
+                    || claims.version() != currentVersion(claims.userId())) {
+                return Optional.empty();
+            }
+            return Optional.of(claims);
+        } catch (IllegalArgumentException e) {
+            // Base64 yoki raqam/enum formati buzilgan
+            return Optional.empty();
+        }
+    }
+
+    /* =========================
+       REVOCATION
+       ========================= */
+
+    /**
+     * Foydalanuvchining barcha imzolangan tokenlarini bekor qiladi.
+     */
+    @Transactional
+    public void revoke(Integer userId) {
+        int version = tokenVersions.merge(userId, 1, Integer::sum);
+        usersRepository.updateTokenVersion(userId, version);
+        log.info("Tokenlar bekor qilindi: user={}, version={}", userId, version);
+    }
+
+    private int currentVersion(Integer userId) {
+        return tokenVersions.getOrDefault(userId, 0);
+    }
+
+    /* =========================
+       HELPERS
+       ========================= */
+
+    private byte[] sign(String encodedPayload) {
+        Mac mac = macs.poll();
+        if (mac == null) {
+            mac = newMac();
+        }
+        try {
+            return mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            macs.offer(mac);
+        }
+    }
+
+    private Mac newMac() {
+        if (secretKey == null) {
+            throw new IllegalStateException("Imzolangan token rejimi yoqilmagan");
+        }
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC ishga tushmadi", e);
+        }
+    }
+
+    public record TokenClaims(Integer userId, Role role, long issuedAt, long expiresAt, int version) {
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.fasthost.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.fasthost.entity.Tariffs;
+import org.example.fasthost.repository.TariffsRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tariflar katalogining xotiradagi o'zgarmas nusxasi (snapshot).
+ * <p>
+ * Ishga tushishda yuklanadi va tarif o'zgarganda (commit'dan keyin) butunlay
+ * yangi snapshot bilan atomik almashtiriladi. O'quvchilar hech qachon lock olmaydi.
+ * Snapshot ichidagi entity'lar detached — ularni o'zgartirmang.
+ */
+@Component
+@Slf4j
+public class TariffCatalog {
+
+    private final TariffsRepository tariffsRepository;
+    private final TransactionTemplate readTransaction;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.EMPTY);
+    // Faqat yozuvchilar uchun: parallel refresh eski ma'lumotni ustiga yozmasin
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public TariffCatalog(TariffsRepository tariffsRepository, PlatformTransactionManager transactionManager) {
+        this.tariffsRepository = tariffsRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /* =========================
+       READ
+       ========================= */
+
+    public Snapshot current() {
+        return snapshot.get();
+    }
+
+    public long version() {
+        return snapshot.get().version();
+    }
+
+    public List<Tariffs> activeTariffs() {
+        return snapshot.get().active();
+    }
+
+    public Optional<Tariffs> findById(Integer id) {
+        return Optional.ofNullable(snapshot.get().byId().get(id));
+    }
+
+    public Optional<Tariffs> findByName(String name) {
+        return Optional.ofNullable(snapshot.get().byName().get(name));
+    }
+
+    /* =========================
+       REFRESH
+       ========================= */
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Tarif o'zgarganda chaqiriladi: tranzaksiya ichida bo'lsa commit'dan keyin yangilaydi.
+     */
+    public void refreshAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    // Boshqa instance'lar yoki qo'lda SQL orqali kiritilgan o'zgarishlar uchun
+    @Scheduled(fixedDelayString = "${app.tariffs.refresh-interval:PT5M}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            List<Tariffs> all = readTransaction.execute(status -> tariffsRepository.findAll());
+            if (all == null) return;
+
+            Snapshot previous = snapshot.get();
+            String fingerprint = fingerprint(all);
+            if (fingerprint.equals(previous.fingerprint())) {
+                return;
+            }
+
+            Snapshot next = Snapshot.of(previous.version() + 1, fingerprint, all);
+            snapshot.set(next);
+            log.info("Tariff catalog refreshed: version={}, tariffs={}", next.version(), all.size());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Katalogga ta'sir qiladigan barcha ustunlar: qo'lda SQL bilan update_time'ga
+     * tegmasdan narx yoki faollik o'zgartirilsa ham yangi snapshot quriladi.
+     */
+    private static String fingerprint(List<Tariffs> tariffs) {
+        StringBuilder sb = new StringBuilder();
+        tariffs.stream()
+                .sorted(Comparator.comparing(Tariffs::getId))
+                .forEach(t -> sb.append(t.getId()).append('@').append(t.getUpdateTime())
+                        .append('|').append(t.getName())
+                        .append('|').append(t.getPrice())
+                        .append('|').append(t.getActive())
+                        .append('|').append(t.getLimitQuota())
+                        .append('|').append(t.getLimitMemory())
+                        .append('|').append(t.getUnlimitedTraffic())
+                        .append('|').append(t.getTrafficLimit())
+                        .append('|').append(t.getLimitDomains())
+                        .append('|').append(t.getLimitFtpUsers())
+                        .append('|').append(t.getLimitEmails())
+                        .append('|').append(t.getLimitDb())
+                        .append('|').append(t.getLimitScheduler())
+                        .append(';'));
+        return sb.toString();
+    }
+
+    /* =========================
+       SNAPSHOT
+       ========================= */
+
+    public record Snapshot(long version,
+                           String fingerprint,
+                           List<Tariffs> active,
+                           Map<Integer, Tariffs> byId,
+                           Map<String, Tariffs> byName) {
+
+        static final Snapshot EMPTY = new Snapshot(0, "", List.of(), Map.of(), Map.of());
+
+        public static Snapshot of(long version, String fingerprint, List<Tariffs> all) {
+            Map<Integer, Tariffs> byId = new HashMap<>();
+            Map<String, Tariffs> byName = new HashMap<>();
+            List<Tariffs> active = new ArrayList<>();
+
+            for (Tariffs tariff : all) {
+                byId.put(tariff.getId(), tariff);
+                byName.put(tariff.getName(), tariff);
+                if (Boolean.TRUE.equals(tariff.getActive())) {
+                    active.add(tariff);
+                }
+            }
+            active.sort(Comparator.comparing(Tariffs::getId));
+
+            return new Snapshot(version, fingerprint, List.copyOf(active), Map.copyOf(byId), Map.copyOf(byName));
+        }
+    }
+}
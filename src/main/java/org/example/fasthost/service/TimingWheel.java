@@ -0,0 +1,181 @@
+package org.example.fasthost.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ierarxik timing wheel (sekund aniqligida).
+ * <p>
+ * 5 daraja x 64 slot: 0-daraja 64 soniyani, har keyingi daraja 64 barobar
+ * ko'proq vaqtni qamraydi (~34 yil). Yuqori darajadagi yozuvlar o'z slotiga
+ * yetganda pastki darajalarga "cascade" qilinadi. schedule / cancel — O(1),
+ * har bir tick — shu tickda tugaydigan yozuvlar soniga proporsional.
+ * <p>
+ * Thread-safe emas: chaqiruvchi tomonda lock bilan ishlatiladi.
+ */
+public final class TimingWheel {
+
+    private static final int LEVELS = 5;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELTA = 1L << (SLOT_BITS * LEVELS);
+
+    private final Node[][] slots = new Node[LEVELS][SLOTS];
+    private final Map<Integer, Node> index = new HashMap<>();
+
+    /** Keyingi qayta ishlanadigan tick (epoch soniya) */
+    private long nextTick;
+
+    public TimingWheel(long startTick) {
+        this.nextTick = startTick;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public long nextTick() {
+        return nextTick;
+    }
+
+    /**
+     * Yozuvni rejalashtiradi (mavjud bo'lsa, yangi muddat bilan almashtiradi).
+     */
+    public void schedule(Integer id, long deadlineTick) {
+        cancel(id);
+
+        Node node = new Node(id, deadlineTick);
+        index.put(id, node);
+        place(node);
+    }
+
+    /**
+     * Faqat wheel'da yo'q bo'lsa qo'yadi — orada yangilangan muddat ustidan yozilmaydi.
+     */
+    public boolean scheduleIfAbsent(Integer id, long deadlineTick) {
+        if (index.containsKey(id)) {
+            return false;
+        }
+        schedule(id, deadlineTick);
+        return true;
+    }
+
+    public boolean cancel(Integer id) {
+        Node node = index.remove(id);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * {@code nowTick} gacha (shu jumladan) barcha tick'larni qayta ishlaydi
+     * va muddati yetgan id'larni qaytaradi.
+     */
+    public List<Integer> advanceTo(long nowTick) {
+        List<Integer> due = new ArrayList<>();
+
+        while (nextTick <= nowTick) {
+            int slot = (int) (nextTick & SLOT_MASK);
+
+            // Pastki daraja aylanib bo'lganda yuqori darajadan tushiramiz
+            if (slot == 0) {
+                for (int level = 1; level < LEVELS; level++) {
+                    int levelSlot = (int) ((nextTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                    cascade(level, levelSlot);
+                    if (levelSlot != 0) break;
+                }
+            }
+
+            Node node = slots[0][slot];
+            slots[0][slot] = null;
+            while (node != null) {
+                Node next = node.next;
+                node.prev = node.next = null;
+                index.remove(node.id);
+                due.add(node.id);
+                node = next;
+            }
+
+            nextTick++;
+        }
+        return due;
+    }
+
+    /* =========================
+       INTERNALS
+       ========================= */
+
+    private void cascade(int level, int slot) {
+        Node node = slots[level][slot];
+        slots[level][slot] = null;
+        while (node != null) {
+            Node next = node.next;
+            node.prev = node.next = null;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node node) {
+        long deadline = node.deadline;
+        long delta = deadline - nextTick;
+
+        int level;
+        if (delta < 0) {
+            // Allaqachon o'tgan — keyingi tickda chiqadi
+            deadline = nextTick;
+            level = 0;
+        } else {
+            if (delta >= MAX_DELTA) {
+                deadline = nextTick + MAX_DELTA - 1;
+                delta = MAX_DELTA - 1;
+            }
+            level = 0;
+            while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+        }
+
+        int slot = (int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        node.level = level;
+        node.slot = slot;
+
+        Node head = slots[level][slot];
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        slots[level][slot] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = node.next = null;
+    }
+
+    private static final class Node {
+        final Integer id;
+        final long deadline;
+        int level;
+        int slot;
+        Node prev;
+        Node next;
+
+        Node(Integer id, long deadline) {
+            this.id = id;
+            this.deadline = deadline;
+        }
+    }
+}
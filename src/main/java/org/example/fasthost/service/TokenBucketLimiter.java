@@ -0,0 +1,135 @@
+package org.example.fasthost.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Kalit bo'yicha token bucket (GCRA ko'rinishida), lock-striping bilan.
+ * <p>
+ * Har bir bucket — bitta {@code long}: "nazariy keyingi kelish vaqti" (TAT).
+ * To'ldirish alohida ishlamaydi — tekshiruv paytida vaqt farqidan hisoblanadi.
+ * Ruxsat berilgan yo'lda: bitta hash, bitta lock va bitta map lookup;
+ * yangi kalit uchungina obyekt yaratiladi.
+ * <p>
+ * Xotira chegaralangan: har bir stripe LRU tartibida, to'lganda eng uzoq
+ * ishlatilmagan bucket chiqariladi (to'la bucket'ni yo'qotish xavfsiz).
+ */
+public final class TokenBucketLimiter {
+
+    private final long periodNanos;
+    private final long burstNanos;
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * @param capacity     bucket hajmi (ketma-ket ruxsat etilgan so'rovlar)
+     * @param periodNanos  bitta token to'lish vaqti
+     * @param stripes      lock'lar soni (2 ning darajasiga yaxlitlanadi)
+     * @param maxEntries   jami saqlanadigan kalitlar soni
+     */
+    public TokenBucketLimiter(int capacity, long periodNanos, int stripes, int maxEntries) {
+        if (capacity <= 0 || periodNanos <= 0) {
+            throw new IllegalArgumentException("capacity va period musbat bo'lishi kerak");
+        }
+        this.periodNanos = periodNanos;
+        this.burstNanos = (capacity - 1) * periodNanos;
+
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        int perStripe = Math.max(1, maxEntries / size);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new Stripe(perStripe);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Token olishga urinadi.
+     *
+     * @return 0 — ruxsat; aks holda keyingi token uchun kutish (nanosekund)
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        stripe.lock.lock();
+        try {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(nowNanos);
+                stripe.buckets.put(key, bucket);
+            }
+
+            long tat = Math.max(bucket.tat, nowNanos);
+            long wait = tat - burstNanos - nowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            bucket.tat = tat + periodNanos;
+            return 0;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * To'liq to'lgan (ya'ni bo'sh turgan) bucket'larni o'chiradi.
+     */
+    public int evictIdle(long nowNanos) {
+        int removed = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                int before = stripe.buckets.size();
+                stripe.buckets.values().removeIf(bucket -> bucket.tat <= nowNanos);
+                removed += before - stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    // HashMap'dagi kabi yuqori bitlarni aralashtirish
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /* =========================
+       INTERNALS
+       ========================= */
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<String, Bucket> buckets;
+
+        Stripe(int maxEntries) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        long tat;
+
+        Bucket(long tat) {
+            this.tat = tat;
+        }
+    }
+}
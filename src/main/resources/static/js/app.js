@@ -0,0 +1,22 @@
+// Dev fallback: frontend/ build'i (prepare-package) ishlamagan holatlar uchun —
+// IDE, mvn spring-boot:run, testlar. Paketlangan jar'da shablonlar hash'li
+// /js/app.<hash>.js ga havola qiladi va bu fayl ishlatilmaydi.
+// Build'siz Tailwind klasslari kompilyatsiya qilinmaydi: ularni Play CDN
+// (frontend/package.json'dagi versiya, tailwind.config.js'dagi sozlamalar) brauzerda yaratadi.
+document.write('<script src="https://cdn.tailwindcss.com/3.4.17"><\/script>');
+document.write('<script>tailwind.config = {darkMode: "class", theme: {extend: {'
+    + 'colors: {primary: "#EF4444"}, fontFamily: {sans: ["Inter", "system-ui", "sans-serif"]}}}};<\/script>');
+
+// Quyidagisi frontend/src/js/app.js bilan bir xil
+const savedTheme = localStorage.getItem("theme");
+if (savedTheme === "light") {
+    document.documentElement.classList.remove("dark");
+}
+
+function toggleTheme() {
+    document.documentElement.classList.toggle("dark");
+    const isDark = document.documentElement.classList.contains("dark");
+    localStorage.setItem("theme", isDark ? "dark" : "light");
+}
+
+window.toggleTheme = toggleTheme;
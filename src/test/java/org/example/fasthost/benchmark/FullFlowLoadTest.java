@@ -0,0 +1,400 @@
+package org.example.fasthost.benchmark;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.fasthost.entity.Orders;
+import org.example.fasthost.entity.Tariffs;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.LedgerEntryType;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.OrderSummariesRepository;
+import org.example.fasthost.repository.OrdersRepository;
+import org.example.fasthost.repository.TariffsRepository;
+import org.example.fasthost.repository.UsersRepository;
+import org.example.fasthost.service.BalanceService;
+import org.example.fasthost.service.PasswordHashingService;
+import org.example.fasthost.service.PaymentSignatureVerifier;
+import org.example.fasthost.service.TariffCatalog;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * To'liq foydalanuvchi oqimi ostidagi yuk testi:
+ * sign up → sign in → /hosting → POST /orders/create → imzolangan to'lov callback → /orders → extend.
+ * <p>
+ * Ilova H2 (PostgreSQL rejimi) ustida ko'tariladi va hajmi sozlanadigan
+ * ma'lumot bilan to'ldiriladi. Har bir qadam uchun p50/p99/p999, throughput
+ * va so'rov boshiga SQL soni ({@code QueryBudgetFilter} metrikasidan) chiqariladi.
+ * <p>
+ * Ishga tushirish: {@code mvn -Ploadtest test -Dloadtest.concurrency=100 -Dloadtest.users=10000}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "loadtest"})
+@Tag("loadtest")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class FullFlowLoadTest {
+
+    private static final int SEED_USERS = Integer.getInteger("loadtest.users", 1_000);
+    private static final int SEED_TARIFFS = Integer.getInteger("loadtest.tariffs", 6);
+    private static final int SEED_ORDERS_PER_USER = Integer.getInteger("loadtest.orders-per-user", 5);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 50);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+    private static final int SEED_BATCH = 500;
+
+    // Qadam -> controller shabloni (QueryBudgetFilter metrikasidagi uri tegi)
+    private static final Map<String, String> STEPS = orderedSteps(
+            "sign_up", "/auth/sign_up",
+            "sign_in", "/auth/sign_in",
+            "hosting", "/hosting",
+            "orders/create", "/orders/create",
+            "payment-callback", "/payments/callback",
+            "orders", "/orders",
+            "extend", "/orders/{id}/extend");
+    private static final Pattern ORDER_ID = Pattern.compile("\"orderId\"\\s*:\\s*(\\d+)");
+    private static final BigDecimal TOPUP = BigDecimal.valueOf(100_000_000);
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Autowired private UsersRepository usersRepository;
+    @Autowired private TariffsRepository tariffsRepository;
+    @Autowired private OrdersRepository ordersRepository;
+    @Autowired private OrderSummariesRepository summariesRepository;
+    @Autowired private TariffCatalog tariffCatalog;
+    @Autowired private BalanceService balanceService;
+    @Autowired private PasswordHashingService passwordHashingService;
+    @Autowired private PaymentSignatureVerifier paymentSignatureVerifier;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final AtomicInteger userSequence = new AtomicInteger();
+
+    private List<Tariffs> tariffs;
+
+    /* =========================
+       SEED
+       ========================= */
+
+    @BeforeAll
+    void seed() {
+        long start = System.nanoTime();
+
+        List<Tariffs> newTariffs = new ArrayList<>();
+        for (int i = 0; i < SEED_TARIFFS; i++) {
+            Tariffs tariff = new Tariffs();
+            tariff.setName("Load " + (i + 1));
+            tariff.setPrice(500.0 + i * 750);
+            tariff.setLimitQuota(1024 * (i + 1));
+            tariff.setLimitMemory(256 * (i + 1));
+            tariff.setUnlimitedTraffic(i % 2 == 1);
+            tariff.setLimitDomains(i + 1);
+            tariff.setLimitFtpUsers(i + 1);
+            tariff.setLimitEmails(10 * (i + 1));
+            tariff.setLimitDb(i + 1);
+            tariff.setLimitScheduler(i);
+            tariff.setActive(true);
+            newTariffs.add(tariff);
+        }
+        tariffs = tariffsRepository.saveAll(newTariffs);
+        tariffCatalog.refresh();
+
+        // Hamma seed foydalanuvchilarning paroli bir xil — bitta hash yetadi
+        String passwordHash = passwordHashingService.hash("load-password");
+
+        for (int batch = 0; batch < SEED_USERS; batch += SEED_BATCH) {
+            int from = batch;
+            int to = Math.min(SEED_USERS, batch + SEED_BATCH);
+            transactionTemplate.executeWithoutResult(status -> seedUsers(from, to, passwordHash));
+        }
+        transactionTemplate.executeWithoutResult(status -> summariesRepository.backfillMissing());
+        balanceService.backfillOpeningBalances();
+
+        System.out.printf(Locale.ROOT, "Seed: tariffs=%d users=%d orders=%d in %.1fs%n",
+                SEED_TARIFFS, SEED_USERS, SEED_USERS * SEED_ORDERS_PER_USER, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void seedUsers(int from, int to, String passwordHash) {
+        List<Users> users = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            users.add(Users.builder()
+                    .name("Seed " + i)
+                    .email("seed-" + i + "@fasthost.test")
+                    .password(passwordHash)
+                    .key(UUID.randomUUID().toString())
+                    .balance(BigDecimal.valueOf(1_000_000))
+                    .isActive(true)
+                    .role(Role.USER)
+                    .build());
+        }
+        usersRepository.saveAll(users);
+
+        List<Orders> orders = new ArrayList<>(users.size() * SEED_ORDERS_PER_USER);
+        for (Users user : users) {
+            for (int j = 0; j < SEED_ORDERS_PER_USER; j++) {
+                Tariffs tariff = tariffs.get((user.getId() + j) % tariffs.size());
+                orders.add(Orders.builder()
+                        .user(user)
+                        .tariff(tariff)
+                        .durationDays(30 * (j + 1))
+                        .totalPrice(BigDecimal.valueOf(tariff.getPrice() * 30 * (j + 1)))
+                        .status(j == 0 ? OrderStatus.PENDING : OrderStatus.ACTIVE)
+                        .domainName("seed" + user.getId() + "-" + j + ".uz")
+                        .login("seed_" + user.getId() + "_" + j)
+                        .paymentId(UUID.randomUUID().toString())
+                        .passwordHash("-")
+                        .build());
+            }
+        }
+        ordersRepository.saveAll(orders);
+    }
+
+    /* =========================
+       LOAD
+       ========================= */
+
+    @Test
+    void fullFlow() throws Exception {
+        drive(WARMUP);
+        Map<String, double[]> warmupQueries = queryTotals();
+
+        long start = System.nanoTime();
+        Map<String, LatencySamples> results = drive(DURATION);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Map<String, double[]> measuredQueries = queryTotals();
+
+        long totalErrors = 0;
+        System.out.printf(Locale.ROOT, "%nFull flow: concurrency=%d duration=%ds users=%d tariffs=%d orders/user=%d%n",
+                CONCURRENCY, DURATION.toSeconds(), SEED_USERS, SEED_TARIFFS, SEED_ORDERS_PER_USER);
+        System.out.printf(Locale.ROOT, "%-16s %9s %7s %9s %9s %9s %9s %8s%n",
+                "step", "requests", "errors", "rps", "p50 ms", "p99 ms", "p999 ms", "sql/req");
+        for (String step : STEPS.keySet()) {
+            LatencySamples samples = results.get(step);
+            double[] before = warmupQueries.get(step);
+            double[] after = measuredQueries.get(step);
+            double requests = after[0] - before[0];
+            double queriesPerRequest = requests == 0 ? 0 : (after[1] - before[1]) / requests;
+            double[] p = samples.percentilesMs();
+            totalErrors += samples.errors();
+            System.out.printf(Locale.ROOT, "%-16s %9d %7d %9.1f %9.2f %9.2f %9.2f %8.2f%n",
+                    step, samples.count(), samples.errors(), samples.count() / seconds,
+                    p[0], p[1], p[2], queriesPerRequest);
+        }
+        System.out.printf(Locale.ROOT, "flows/s: %.1f%n", results.get("extend").count() / seconds);
+
+        assertEquals(0, totalErrors, "Yuk testida xato bo'lmasligi kerak");
+    }
+
+    private Map<String, LatencySamples> drive(Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<Map<String, LatencySamples>>> futures = new ArrayList<>(CONCURRENCY);
+        try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(users.submit(() -> {
+                    Map<String, LatencySamples> samples = newSamples();
+                    while (System.nanoTime() < deadline) {
+                        runFlow(samples);
+                    }
+                    return samples;
+                }));
+            }
+        }
+
+        Map<String, LatencySamples> merged = newSamples();
+        for (Future<Map<String, LatencySamples>> future : futures) {
+            future.get().forEach((step, samples) -> merged.get(step).addAll(samples));
+        }
+        return merged;
+    }
+
+    /**
+     * Bitta virtual foydalanuvchining to'liq oqimi. Qadam xato bo'lsa oqim to'xtaydi.
+     */
+    private void runFlow(Map<String, LatencySamples> samples) {
+        String email = "load-" + userSequence.incrementAndGet() + "-" + UUID.randomUUID() + "@fasthost.test";
+        String password = "load-password";
+
+        Step signUp = send(samples, "sign_up", post("/auth/sign_up",
+                form("name", "Load User", "email", email, "password", password), null));
+        if (signUp.cookie() == null) return;
+
+        // To'lov tizimi o'rniga: balans tashqaridan to'ldiriladi (o'lchanmaydi)
+        Integer userId = usersRepository.findByEmail(email).map(Users::getId).orElseThrow();
+        balanceService.credit(userId, TOPUP, LedgerEntryType.TOPUP, null);
+
+        Step signIn = send(samples, "sign_in", post("/auth/sign_in",
+                form("email", email, "password", password), null));
+        String cookie = signIn.cookie();
+        if (cookie == null) return;
+
+        send(samples, "hosting", get("/hosting", cookie));
+
+        Tariffs tariff = tariffs.get(Math.floorMod(email.hashCode(), tariffs.size()));
+        Step created = send(samples, "orders/create", HttpRequest.newBuilder(uri("/orders/create"))
+                .header("Cookie", cookie)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"tariffId\":" + tariff.getId()
+                        + ",\"durationDays\":30,\"domainName\":\"" + userId + ".load.uz\"}")));
+        Matcher matcher = ORDER_ID.matcher(created.body());
+        if (!matcher.find()) return;
+        int orderId = Integer.parseInt(matcher.group(1));
+
+        String paymentId = ordersRepository.findById(orderId).map(Orders::getPaymentId).orElseThrow();
+        // Provayder o'rniga: tana test kaliti bilan imzolanadi, cookie yo'q
+        byte[] callback = ("{\"paymentId\":\"" + paymentId + "\"}").getBytes(StandardCharsets.UTF_8);
+        send(samples, "payment-callback", HttpRequest.newBuilder(uri("/payments/callback"))
+                .header("Content-Type", "application/json")
+                .header(PaymentSignatureVerifier.HEADER, paymentSignatureVerifier.signature(callback))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(callback)));
+        // Callback fonda qo'llanadi: uzaytirish faol buyurtmani talab qiladi (o'lchanmaydi)
+        awaitActive(orderId);
+
+        send(samples, "orders", get("/orders", cookie));
+
+        send(samples, "extend", post("/orders/" + orderId + "/extend", form("days", "30"), cookie));
+    }
+
+    private void awaitActive(int orderId) {
+        try {
+            for (int i = 0; i < 200; i++) {
+                OrderStatus status = ordersRepository.findById(orderId).map(Orders::getStatus).orElse(null);
+                if (status == OrderStatus.ACTIVE) return;
+                Thread.sleep(10);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* =========================
+       HTTP
+       ========================= */
+
+    private record Step(int status, String body, String cookie) {
+    }
+
+    /**
+     * Qadam bo'yicha {so'rovlar, SQL'lar} — {@code fasthost.http.queries} summary'sidan.
+     */
+    private Map<String, double[]> queryTotals() {
+        Map<String, double[]> totals = new LinkedHashMap<>();
+        STEPS.forEach((step, uri) -> {
+            DistributionSummary summary = meterRegistry.find("fasthost.http.queries").tag("uri", uri).summary();
+            totals.put(step, summary == null
+                    ? new double[]{0, 0}
+                    : new double[]{summary.count(), summary.totalAmount()});
+        });
+        return totals;
+    }
+
+    private Step send(Map<String, LatencySamples> samples, String step, HttpRequest.Builder builder) {
+        HttpRequest request = builder.build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long elapsed = System.nanoTime() - start;
+
+            String cookie = response.headers().allValues("Set-Cookie").stream()
+                    .filter(value -> value.startsWith("AUTH_TOKEN=") && !value.startsWith("AUTH_TOKEN=;"))
+                    .map(value -> value.substring(0, value.indexOf(';') > 0 ? value.indexOf(';') : value.length()))
+                    .findFirst()
+                    .orElse(null);
+
+            samples.get(step).add(elapsed, isSuccess(step, response, cookie));
+            return new Step(response.statusCode(), response.body(), cookie);
+        } catch (Exception e) {
+            samples.get(step).add(System.nanoTime() - start, false);
+            return new Step(-1, "", null);
+        }
+    }
+
+    // Form endpoint'lar doim redirect qiladi: muvaffaqiyat cookie yoki JSON bo'yicha aniqlanadi
+    private static boolean isSuccess(String step, HttpResponse<String> response, String cookie) {
+        int status = response.statusCode();
+        return switch (step) {
+            case "sign_up", "sign_in" -> status == 302 && cookie != null;
+            case "orders/create", "payment-callback" -> status == 200 && response.body().contains("\"success\":true");
+            case "extend" -> status == 302 && !response.headers().firstValue("Location").orElse("").contains("/auth");
+            default -> status == 200;
+        };
+    }
+
+    private HttpRequest.Builder get(String path, String cookie) {
+        return HttpRequest.newBuilder(uri(path)).header("Cookie", cookie).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body, String cookie) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        return cookie == null ? builder : builder.header("Cookie", cookie);
+    }
+
+    private static String form(String... pairs) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (sb.length() > 0) sb.append('&');
+            sb.append(URLEncoder.encode(pairs[i], StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    private static Map<String, LatencySamples> newSamples() {
+        Map<String, LatencySamples> samples = new LinkedHashMap<>();
+        for (String step : STEPS.keySet()) {
+            samples.put(step, new LatencySamples());
+        }
+        return samples;
+    }
+
+    private static Map<String, String> orderedSteps(String... pairs) {
+        Map<String, String> steps = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            steps.put(pairs[i], pairs[i + 1]);
+        }
+        return steps;
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.fasthost.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Bitta mijoz (yoki bitta endpoint) latency'lari. Thread-safe emas:
+ * har bir virtual foydalanuvchi o'zinikini yozadi, oxirida {@link #addAll} bilan birlashtiriladi.
+ */
+final class LatencySamples {
+
+    private long[] latencies = new long[1024];
+    private int size;
+    private long errors;
+
+    void add(long nanos, boolean ok) {
+        if (size == latencies.length) {
+            latencies = Arrays.copyOf(latencies, size * 2);
+        }
+        latencies[size++] = nanos;
+        if (!ok) errors++;
+    }
+
+    void addAll(LatencySamples other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.latencies[i], true);
+        }
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * Percentil'lar millisekundlarda: {p50, p99, p999}.
+     */
+    double[] percentilesMs() {
+        long[] sorted = Arrays.copyOf(latencies, size);
+        Arrays.sort(sorted);
+        return new double[]{percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999)};
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
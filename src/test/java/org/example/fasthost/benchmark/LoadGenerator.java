@@ -0,0 +1,80 @@
+package org.example.fasthost.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Yopiq tsiklli yuk generatori: {@code concurrency} ta mijoz javob kelishi bilan
+ * keyingi so'rovni yuboradi. Har bir mijoz o'z latency massivini yozadi,
+ * oxirida birlashtirilib percentil'lar hisoblanadi.
+ */
+final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * @param request bitta so'rov; HTTP status qaytaradi (2xx — muvaffaqiyatli)
+     */
+    static Result run(String name, int concurrency, Duration warmup, Duration duration,
+                      Callable<Integer> request) throws Exception {
+        drive(concurrency, warmup, request);
+        return drive(concurrency, duration, request).named(name, concurrency, duration);
+    }
+
+    private static Result drive(int concurrency, Duration duration, Callable<Integer> request) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<LatencySamples>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    LatencySamples samples = new LatencySamples();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = request.call();
+                        } catch (Exception e) {
+                            status = -1;
+                        }
+                        samples.add(System.nanoTime() - start, status >= 200 && status < 300);
+                    }
+                    return samples;
+                }));
+            }
+        }
+
+        LatencySamples all = new LatencySamples();
+        for (Future<LatencySamples> future : futures) {
+            all.addAll(future.get());
+        }
+        double[] percentiles = all.percentilesMs();
+        return new Result(null, 0, all.count(), all.errors(), 0, percentiles[0], percentiles[1], percentiles[2]);
+    }
+
+    /* =========================
+       RESULT
+       ========================= */
+
+    record Result(String name, int concurrency, long requests, long errors,
+                  double throughput, double p50Ms, double p99Ms, double p999Ms) {
+
+        Result named(String name, int concurrency, Duration duration) {
+            double seconds = duration.toNanos() / 1e9;
+            return new Result(name, concurrency, requests, errors, requests / seconds, p50Ms, p99Ms, p999Ms);
+        }
+
+        String format() {
+            return String.format(Locale.ROOT,
+                    "%-28s c=%-4d req=%-8d err=%-5d rps=%-9.1f p50=%-7.2fms p99=%-7.2fms p999=%.2fms",
+                    name, concurrency, requests, errors, throughput, p50Ms, p99Ms, p999Ms);
+        }
+    }
+}
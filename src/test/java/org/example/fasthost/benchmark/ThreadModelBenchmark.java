@@ -0,0 +1,135 @@
+package org.example.fasthost.benchmark;
+
+import org.example.fasthost.entity.OrderSummaries;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.OrderSummariesRepository;
+import org.example.fasthost.repository.UsersRepository;
+import org.example.fasthost.service.SessionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Platform va virtual thread rejimlarini bir xil yuk ostida solishtiradi.
+ * Har bir rejim — alohida Spring konteksti ({@link PlatformThreadsBenchmarkTest},
+ * {@link VirtualThreadsBenchmarkTest}); natijalar stdout'ga bitta qatordan chiqadi.
+ * <p>
+ * Ishga tushirish: {@code mvn -Pbenchmark test -Dbenchmark.concurrency=400}
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class ThreadModelBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("benchmark.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("benchmark.duration-seconds", 20));
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private OrderSummariesRepository summariesRepository;
+
+    @Autowired
+    private SessionService sessionService;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String authToken;
+
+    @BeforeAll
+    void seed() {
+        Users user = Users.builder()
+                .name("bench")
+                .email("bench-" + UUID.randomUUID() + "@fasthost.test")
+                .password("-")
+                .key(UUID.randomUUID().toString())
+                .balance(BigDecimal.ZERO)
+                .isActive(true)
+                .role(Role.USER)
+                .build();
+        usersRepository.save(user);
+
+        List<OrderSummaries> summaries = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 100; i++) {
+            summaries.add(OrderSummaries.builder()
+                    .orderId(i)
+                    .userId(user.getId())
+                    .tariffId(1)
+                    .tariffName("Bench")
+                    .status(OrderStatus.ACTIVE)
+                    .durationDays(30)
+                    .totalPrice(BigDecimal.valueOf(30_000))
+                    .domainName("bench" + i + ".uz")
+                    .startTime(now.minusDays(i))
+                    .endTime(now.plusDays(30 - i))
+                    .createTime(now.minusDays(i))
+                    .build());
+        }
+        summariesRepository.saveAll(summaries);
+
+        authToken = sessionService.create(user, new MockHttpServletRequest());
+    }
+
+    @Test
+    void authenticatedOrderList() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/orders/api/list?size=20"))
+                .header("Cookie", "AUTH_TOKEN=" + authToken)
+                .GET()
+                .build();
+
+        report("orders/api/list", request);
+    }
+
+    @Test
+    void publicHostingPage() throws Exception {
+        report("hosting", HttpRequest.newBuilder(uri("/hosting")).GET().build());
+    }
+
+    private void report(String endpoint, HttpRequest request) throws Exception {
+        String name = (virtualThreads ? "virtual " : "platform ") + endpoint;
+
+        LoadGenerator.Result result = LoadGenerator.run(name, CONCURRENCY, WARMUP, DURATION,
+                () -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+
+        System.out.println(result.format());
+        assertEquals(0, result.errors(), "Benchmark so'rovlarida xato bo'lmasligi kerak");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
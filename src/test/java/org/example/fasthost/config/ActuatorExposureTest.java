@@ -0,0 +1,47 @@
+package org.example.fasthost.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Metrikalar faqat management portida cookie'siz ochiq, asosiy portda yo'q.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.server.port=18081")
+@ActiveProfiles("h2")
+class ActuatorExposureTest {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${management.server.port}")
+    private int managementPort;
+
+    @Test
+    void prometheusIsServedOnlyOnManagementPort() throws Exception {
+        assertEquals(200, get(managementPort, "/actuator/prometheus"));
+        assertEquals(200, get(managementPort, "/actuator/health"));
+
+        assertNotEquals(200, get(port, "/actuator/prometheus"));
+    }
+
+    private int get(int port, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.fasthost.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Retry-After: limiter kutishi butun soniyaga yuqoriga yaxlitlanadi, kamida 1.
+ */
+class AuthRateLimitFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, AuthRateLimitFilter.retryAfterSeconds(1));
+        assertEquals(1, AuthRateLimitFilter.retryAfterSeconds(SECOND / 2));
+        assertEquals(1, AuthRateLimitFilter.retryAfterSeconds(SECOND));
+        assertEquals(2, AuthRateLimitFilter.retryAfterSeconds(SECOND + 1));
+        assertEquals(3, AuthRateLimitFilter.retryAfterSeconds(2 * SECOND + SECOND / 2));
+        assertEquals(12, AuthRateLimitFilter.retryAfterSeconds(12 * SECOND));
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.fasthost.controller;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.Cookie;
+import org.example.fasthost.config.QueryBudgetFilter;
+import org.example.fasthost.entity.OrderSummaries;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.OrderSummariesRepository;
+import org.example.fasthost.repository.UsersRepository;
+import org.example.fasthost.service.SessionService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.example.fasthost.support.QueryBudget.assertAtMost;
+import static org.example.fasthost.support.QueryBudget.assertNoRepeatedQueries;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Buyurtmalar sahifasi va API'si uchun SQL byudjeti: sahifadagi buyurtmalar
+ * soniga bog'liq bo'lmagan, o'zgarmas son (N+1 yo'q).
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrdersControllerQueryBudgetTest {
+
+    // Sessiya (token_hash + user) va order_summaries sahifasi
+    private static final int MAX_QUERIES = 3;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private QueryBudgetFilter queryBudgetFilter;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private OrderSummariesRepository summariesRepository;
+
+    @Autowired
+    private SessionService sessionService;
+
+    private MockMvc mockMvc;
+    private Cookie authCookie;
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(queryBudgetFilter, springSecurityFilterChain)
+                .build();
+
+        Users user = usersRepository.save(Users.builder()
+                .name("Budget")
+                .email("budget-" + UUID.randomUUID() + "@fasthost.test")
+                .password("-")
+                .key(UUID.randomUUID().toString())
+                .balance(BigDecimal.ZERO)
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderSummaries> summaries = new ArrayList<>();
+        for (int i = 1; i <= 30; i++) {
+            summaries.add(OrderSummaries.builder()
+                    .orderId(10_000 + i)
+                    .userId(user.getId())
+                    .tariffId(1)
+                    .tariffName("Budget")
+                    .status(OrderStatus.ACTIVE)
+                    .durationDays(30)
+                    .totalPrice(BigDecimal.valueOf(30_000))
+                    .domainName("budget" + i + ".uz")
+                    .startTime(now.minusDays(i))
+                    .endTime(now.plusDays(30 - i))
+                    .createTime(now.minusDays(i))
+                    .build());
+        }
+        summariesRepository.saveAll(summaries);
+
+        authCookie = new Cookie("AUTH_TOKEN", sessionService.create(user, new MockHttpServletRequest()));
+    }
+
+    @Test
+    void ordersPageStaysWithinQueryBudget() throws Exception {
+        MvcResult result = mockMvc.perform(get("/orders").cookie(authCookie))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertAtMost(result, MAX_QUERIES);
+        assertNoRepeatedQueries(result, 2);
+    }
+
+    @Test
+    void ordersApiNextPageStaysWithinQueryBudget() throws Exception {
+        MvcResult first = mockMvc.perform(get("/orders/api/list").param("size", "10").cookie(authCookie))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertAtMost(first, MAX_QUERIES);
+
+        String body = first.getResponse().getContentAsString();
+        String cursor = body.replaceAll("(?s).*\"nextCursor\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+
+        MvcResult next = mockMvc.perform(get("/orders/api/list").param("size", "10").param("cursor", cursor)
+                        .cookie(authCookie))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertAtMost(next, MAX_QUERIES);
+        assertNoRepeatedQueries(next, 2);
+    }
+
+    @Test
+    void ordersExportIsSingleStreamingQuery() throws Exception {
+        MvcResult result = mockMvc.perform(get("/orders/api/export").cookie(authCookie))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertAtMost(result, MAX_QUERIES);
+        assertNoRepeatedQueries(result, 2);
+    }
+}
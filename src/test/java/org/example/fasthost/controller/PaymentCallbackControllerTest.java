@@ -0,0 +1,106 @@
+package org.example.fasthost.controller;
+
+import jakarta.servlet.Filter;
+import org.example.fasthost.repository.PaymentCallbacksRepository;
+import org.example.fasthost.service.PaymentSignatureVerifier;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * To'lov callback'i: cookie'siz ochiq, lekin faqat imzolangan tana qabul qilinadi.
+ * Imzosiz yoki buzuq imzoli so'rov dedupe jadvaliga yozilmaydi.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaymentCallbackControllerTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+
+    @Autowired
+    private PaymentSignatureVerifier signatureVerifier;
+
+    @Autowired
+    private PaymentCallbacksRepository callbacksRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(springSecurityFilterChain)
+                .build();
+    }
+
+    @Test
+    void signedCallbackIsAcceptedWithoutCookie() throws Exception {
+        String paymentId = UUID.randomUUID().toString();
+        byte[] body = body(paymentId);
+
+        mockMvc.perform(post("/payments/callback")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(PaymentSignatureVerifier.HEADER, signatureVerifier.signature(body))
+                        .content(body))
+                .andExpect(status().isOk());
+
+        assertTrue(callbacksRepository.existsById(paymentId));
+    }
+
+    @Test
+    void unsignedCallbackIsRejectedBeforeDedupe() throws Exception {
+        String paymentId = UUID.randomUUID().toString();
+
+        mockMvc.perform(post("/payments/callback")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(paymentId)))
+                .andExpect(status().isUnauthorized());
+
+        assertFalse(callbacksRepository.existsById(paymentId));
+    }
+
+    @Test
+    void callbackSignedForAnotherBodyIsRejected() throws Exception {
+        String paymentId = UUID.randomUUID().toString();
+        String signature = signatureVerifier.signature(body(UUID.randomUUID().toString()));
+
+        mockMvc.perform(post("/payments/callback")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(PaymentSignatureVerifier.HEADER, signature)
+                        .content(body(paymentId)))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/payments/callback")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(PaymentSignatureVerifier.HEADER, "not-hex")
+                        .content(body(paymentId)))
+                .andExpect(status().isUnauthorized());
+
+        assertFalse(callbacksRepository.existsById(paymentId));
+    }
+
+    private static byte[] body(String paymentId) {
+        return ("{\"paymentId\":\"" + paymentId + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.UsersRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bloklash va foydalanuvchi bo'yicha tozalash: keshdagi principal TTL'ni kutmaydi,
+ * boshqa foydalanuvchilarning yozuvlariga tegilmaydi.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class AuthTokenCacheTest {
+
+    @Autowired private AuthTokenCache authTokenCache;
+    @Autowired private AuthService authService;
+    @Autowired private SessionService sessionService;
+    @Autowired private UsersRepository usersRepository;
+
+    @Test
+    void deactivateEvictsCachedPrincipal() {
+        Users user = newUser();
+        String token = sessionService.create(user, new MockHttpServletRequest());
+        assertTrue(authTokenCache.get(token).orElseThrow().isActive());
+
+        assertTrue(authService.deactivate(user.getId()).isSuccess());
+
+        assertTrue(authTokenCache.get(token).isEmpty());
+        assertFalse(authService.deactivate(user.getId()).isSuccess());
+    }
+
+    @Test
+    void invalidateUserEvictsOnlyThatUsersTokens() {
+        Users first = newUser();
+        Users second = newUser();
+        String firstToken = sessionService.create(first, new MockHttpServletRequest());
+        String otherFirstToken = sessionService.create(first, new MockHttpServletRequest());
+        String secondToken = sessionService.create(second, new MockHttpServletRequest());
+        authTokenCache.get(firstToken);
+        authTokenCache.get(otherFirstToken);
+        authTokenCache.get(secondToken);
+
+        // Sessiyalar bazada yopiladi, kesh esa faqat birinchi foydalanuvchi uchun tozalanadi
+        sessionService.revokeAll(first.getId());
+        sessionService.revokeAll(second.getId());
+        authTokenCache.invalidateUser(first.getId());
+
+        assertTrue(authTokenCache.get(firstToken).isEmpty());
+        assertTrue(authTokenCache.get(otherFirstToken).isEmpty());
+        assertTrue(authTokenCache.get(secondToken).isPresent());
+    }
+
+    private Users newUser() {
+        return usersRepository.save(Users.builder()
+                .name("Cache")
+                .email("cache-" + UUID.randomUUID() + "@fasthost.test")
+                .password("-")
+                .key(UUID.randomUUID().toString())
+                .balance(BigDecimal.ZERO)
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.BalanceLedger;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.LedgerEntryType;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.BalanceLedgerRepository;
+import org.example.fasthost.repository.UsersRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boshlang'ich balans yozuvlari: qayta ishga tushirish takrorlamaydi,
+ * ikkinchi OPENING_BALANCE yozuvini unique indeks rad etadi.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class BalanceServiceBackfillTest {
+
+    @Autowired private BalanceService balanceService;
+    @Autowired private BalanceLedgerRepository ledgerRepository;
+    @Autowired private UsersRepository usersRepository;
+
+    @Test
+    void backfillCreatesOneOpeningEntryPerUser() {
+        // Ledger'dan oldingi foydalanuvchi: balans bor, jurnal bo'sh
+        Users user = newUser(new BigDecimal("125.50"));
+
+        balanceService.backfillOpeningBalances();
+        balanceService.backfillOpeningBalances();
+
+        assertEquals(1, openingEntries(user));
+        assertTrue(balanceService.reconcile(user.getId()));
+    }
+
+    @Test
+    void secondOpeningEntryIsRejected() {
+        Users user = newUser(new BigDecimal("10.00"));
+        balanceService.backfillOpeningBalances();
+
+        assertThrows(DataIntegrityViolationException.class, () -> ledgerRepository.saveAndFlush(BalanceLedger.builder()
+                .userId(user.getId())
+                .openingUserId(user.getId())
+                .amount(new BigDecimal("10.00"))
+                .type(LedgerEntryType.OPENING_BALANCE)
+                .build()));
+        assertEquals(1, openingEntries(user));
+    }
+
+    private long openingEntries(Users user) {
+        return ledgerRepository.findAll().stream()
+                .filter(entry -> entry.getUserId().equals(user.getId()))
+                .filter(entry -> entry.getType() == LedgerEntryType.OPENING_BALANCE)
+                .count();
+    }
+
+    private Users newUser(BigDecimal balance) {
+        return usersRepository.save(Users.builder()
+                .name("Backfill")
+                .email("backfill-" + UUID.randomUUID() + "@fasthost.test")
+                .password("-")
+                .key(UUID.randomUUID().toString())
+                .balance(balance)
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+    }
+}
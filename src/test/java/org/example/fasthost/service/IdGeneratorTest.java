@@ -0,0 +1,97 @@
+package org.example.fasthost.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Login generatori: (vaqt, ketma-ketlik) monotonligi, millisekundiga 4096 dan
+ * ko'p so'rovda qarz olish va 13 belgili kodlashning tartibi.
+ */
+class IdGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int PER_MILLI = 4096;
+
+    @Test
+    void stampsAreStrictlyIncreasingWhenClockGoesBack() {
+        AtomicLong clock = new AtomicLong(NOW);
+        IdGenerator generator = new IdGenerator(1, clock::get);
+
+        long previous = generator.nextStamp();
+        for (int i = 0; i < 10_000; i++) {
+            // Har 100 chaqiruvda soat 5 ms orqaga ketadi
+            clock.addAndGet(i % 100 == 0 ? -5 : 1);
+            long next = generator.nextStamp();
+            assertTrue(next > previous, "stamp kamaydi: " + previous + " -> " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void borrowsNextMillisecondPastSequenceLimit() {
+        IdGenerator generator = new IdGenerator(1, () -> NOW);
+
+        long first = generator.nextStamp();
+        long last = first;
+        for (int i = 1; i <= PER_MILLI; i++) {
+            last = generator.nextStamp();
+        }
+
+        // 4097-chi stamp keyingi millisekundning birinchi ketma-ketligi
+        assertEquals(first + PER_MILLI, last);
+        assertEquals(NOW - EPOCH, first >>> 12);
+        assertEquals(NOW - EPOCH + 1, last >>> 12);
+        assertEquals(0, last & (PER_MILLI - 1));
+    }
+
+    @Test
+    void loginsAreFixedLengthAndSortInGenerationOrder() {
+        AtomicLong clock = new AtomicLong(NOW);
+        IdGenerator generator = new IdGenerator(IdGenerator.MAX_NODE_ID, clock::get);
+
+        List<String> logins = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock.addAndGet(1);
+            }
+            logins.add(generator.login());
+        }
+
+        for (int i = 0; i < logins.size(); i++) {
+            String login = logins.get(i);
+            assertEquals(IdGenerator.LOGIN_LENGTH, login.length(), login);
+            assertTrue(login.substring(IdGenerator.LOGIN_PREFIX.length()).matches("[0-9a-hjkmnp-tv-z]{13}"), login);
+            if (i > 0) {
+                assertTrue(logins.get(i - 1).compareTo(login) < 0, logins.get(i - 1) + " >= " + login);
+            }
+        }
+    }
+
+    @Test
+    void stampOfDecodesGeneratedLogin() {
+        IdGenerator generator = new IdGenerator(7, () -> NOW);
+        generator.advancePast(((NOW - EPOCH) << 12) + 41);
+
+        long expected = ((NOW - EPOCH) << 12) + 42;
+        assertEquals(expected, IdGenerator.stampOf(generator.login()).orElseThrow());
+        assertTrue(IdGenerator.stampOf("host_legacy-login").isEmpty());
+    }
+
+    @Test
+    void loginRequiresNodeId() {
+        IdGenerator generator = new IdGenerator();
+        assertThrows(IllegalStateException.class, generator::login);
+
+        generator.assignNode(3);
+        assertEquals(IdGenerator.LOGIN_LENGTH, generator.login().length());
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.Orders;
+import org.example.fasthost.entity.Tariffs;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.enums.OrderEventType;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.OrdersRepository;
+import org.example.fasthost.repository.OutboxEventsRepository;
+import org.example.fasthost.repository.TariffsRepository;
+import org.example.fasthost.repository.UsersRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Expiry: keyset bo'laklari hammasini o'tadi, shartli UPDATE esa faqat hali ham
+ * muddati o'tgan ACTIVE buyurtmalarni o'zgartiradi va hodisa faqat ular uchun yoziladi.
+ */
+@SpringBootTest(properties = {
+        "app.orders.expiry.chunk-size=2",
+        "app.orders.expiry.interval=PT1H"
+})
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderExpiryServiceTest {
+
+    private static final int DAYS = 30;
+
+    @Autowired private OrderExpiryService orderExpiryService;
+    @Autowired private OrdersRepository ordersRepository;
+    @Autowired private OutboxEventsRepository outboxEventsRepository;
+    @Autowired private UsersRepository usersRepository;
+    @Autowired private TariffsRepository tariffsRepository;
+
+    private Tariffs tariff;
+    private Users user;
+
+    @BeforeAll
+    void setUp() {
+        Tariffs newTariff = new Tariffs();
+        newTariff.setName("Expiry " + UUID.randomUUID());
+        newTariff.setPrice(1000.0);
+        newTariff.setLimitQuota(1024);
+        newTariff.setLimitMemory(256);
+        newTariff.setUnlimitedTraffic(true);
+        newTariff.setLimitDomains(1);
+        newTariff.setLimitFtpUsers(1);
+        newTariff.setLimitEmails(10);
+        newTariff.setLimitDb(1);
+        newTariff.setLimitScheduler(1);
+        newTariff.setActive(true);
+        tariff = tariffsRepository.save(newTariff);
+
+        user = usersRepository.save(Users.builder()
+                .name("Expiry")
+                .email("expiry-" + UUID.randomUUID() + "@fasthost.test")
+                .password("-")
+                .key(UUID.randomUUID().toString())
+                .balance(BigDecimal.ZERO)
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+    }
+
+    @Test
+    void runOnceWalksEveryChunk() {
+        // chunk-size=2: besh nomzod uchta bo'lakda
+        List<Orders> due = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            due.add(newOrder(OrderStatus.ACTIVE, LocalDateTime.now().minusDays(DAYS + 1 + i)));
+        }
+        Orders running = newOrder(OrderStatus.ACTIVE, LocalDateTime.now());
+
+        OrderExpiryService.RunStats stats = orderExpiryService.runOnce();
+
+        assertTrue(stats.chunks() >= 3, "chunks=" + stats.chunks());
+        assertTrue(stats.expired() >= due.size(), "expired=" + stats.expired());
+        due.forEach(order -> assertEquals(OrderStatus.EXPIRED, statusOf(order)));
+        assertEquals(OrderStatus.ACTIVE, statusOf(running));
+    }
+
+    @Test
+    void expireSkipsOrdersThatAreNoLongerDue() {
+        Orders due = newOrder(OrderStatus.ACTIVE, LocalDateTime.now().minusDays(DAYS + 1));
+        // Nomzod tanlangandan keyin uzaytirilgan va bekor qilingan buyurtmalar
+        Orders extended = newOrder(OrderStatus.ACTIVE, LocalDateTime.now());
+        Orders canceled = newOrder(OrderStatus.CANCELED, LocalDateTime.now().minusDays(DAYS + 1));
+
+        int expired = orderExpiryService.expire(
+                List.of(due.getId(), extended.getId(), canceled.getId()), LocalDateTime.now());
+
+        assertEquals(1, expired);
+        assertEquals(OrderStatus.EXPIRED, statusOf(due));
+        assertEquals(OrderStatus.ACTIVE, statusOf(extended));
+        assertEquals(OrderStatus.CANCELED, statusOf(canceled));
+
+        assertEquals(1, expiredEvents(due));
+        assertEquals(0, expiredEvents(extended));
+        assertEquals(0, expiredEvents(canceled));
+
+        // Takroriy chaqiruv hech narsani o'zgartirmaydi va hodisa yozmaydi
+        assertEquals(0, orderExpiryService.expire(List.of(due.getId()), LocalDateTime.now()));
+        assertEquals(1, expiredEvents(due));
+    }
+
+    private Orders newOrder(OrderStatus status, LocalDateTime startTime) {
+        return ordersRepository.save(Orders.builder()
+                .user(user)
+                .tariff(tariff)
+                .durationDays(DAYS)
+                .totalPrice(BigDecimal.TEN)
+                .status(status)
+                .startTime(startTime)
+                .login("expiry_" + UUID.randomUUID())
+                .paymentId(UUID.randomUUID().toString())
+                .passwordHash("-")
+                .build());
+    }
+
+    private OrderStatus statusOf(Orders order) {
+        return ordersRepository.findById(order.getId()).orElseThrow().getStatus();
+    }
+
+    private long expiredEvents(Orders order) {
+        return outboxEventsRepository.findAll().stream()
+                .filter(event -> event.getOrderId().equals(order.getId()))
+                .filter(event -> event.getType() == OrderEventType.EXPIRED)
+                .count();
+    }
+}
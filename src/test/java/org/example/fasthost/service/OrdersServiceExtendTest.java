@@ -0,0 +1,157 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.Orders;
+import org.example.fasthost.entity.Tariffs;
+import org.example.fasthost.entity.Users;
+import org.example.fasthost.entity.dto.Response;
+import org.example.fasthost.entity.enums.OrderStatus;
+import org.example.fasthost.entity.enums.Role;
+import org.example.fasthost.repository.OrdersRepository;
+import org.example.fasthost.repository.TariffsRepository;
+import org.example.fasthost.repository.UsersRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bir buyurtmani parallel uzaytirish: har bir muvaffaqiyatli yechish
+ * muddatga qo'shiladi (oxirgi yozuv g'olib emas).
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrdersServiceExtendTest {
+
+    private static final int DAYS = 30;
+    private static final int EXTENDS = 2;
+
+    @Autowired private OrdersService ordersService;
+    @Autowired private OrdersRepository ordersRepository;
+    @Autowired private UsersRepository usersRepository;
+    @Autowired private TariffsRepository tariffsRepository;
+    @Autowired private TariffCatalog tariffCatalog;
+    @Autowired private PricingEngine pricingEngine;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Tariffs tariff;
+    private BigDecimal price;
+
+    @BeforeAll
+    void setUp() {
+        Tariffs newTariff = new Tariffs();
+        newTariff.setName("Extend " + UUID.randomUUID());
+        newTariff.setPrice(1000.0);
+        newTariff.setLimitQuota(1024);
+        newTariff.setLimitMemory(256);
+        newTariff.setUnlimitedTraffic(true);
+        newTariff.setLimitDomains(1);
+        newTariff.setLimitFtpUsers(1);
+        newTariff.setLimitEmails(10);
+        newTariff.setLimitDb(1);
+        newTariff.setLimitScheduler(1);
+        newTariff.setActive(true);
+        tariff = tariffsRepository.save(newTariff);
+        tariffCatalog.refresh();
+
+        price = pricingEngine.total(tariff.getId(), DAYS);
+    }
+
+    @Test
+    void concurrentExtendsAreAllApplied() throws Exception {
+        Users user = newUser(price.multiply(BigDecimal.valueOf(EXTENDS)));
+        Orders order = newActiveOrder(user);
+
+        List<Response<Void>> responses = extendConcurrently(order.getId(), user);
+
+        responses.forEach(response -> assertEquals(true, response.isSuccess(), response.getMessage()));
+        Orders extended = ordersRepository.findById(order.getId()).orElseThrow();
+        assertEquals(DAYS * (EXTENDS + 1), extended.getDurationDays());
+        assertEquals(order.getEndTime().plusDays((long) DAYS * EXTENDS), extended.getEndTime());
+        assertEquals(0, order.getTotalPrice().add(price.multiply(BigDecimal.valueOf(EXTENDS)))
+                .compareTo(extended.getTotalPrice()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(user)));
+    }
+
+    @Test
+    void extendWithoutFundsLeavesOrderUnchanged() throws Exception {
+        // Faqat bitta uzaytirishga yetadi: ikkinchisining UPDATE'i ham bekor bo'ladi
+        Users user = newUser(price);
+        Orders order = newActiveOrder(user);
+
+        List<Response<Void>> responses = extendConcurrently(order.getId(), user);
+
+        assertEquals(1, responses.stream().filter(Response::isSuccess).count());
+        Orders extended = ordersRepository.findById(order.getId()).orElseThrow();
+        assertEquals(DAYS * 2, extended.getDurationDays());
+        assertEquals(order.getEndTime().plusDays(DAYS), extended.getEndTime());
+        assertEquals(0, order.getTotalPrice().add(price).compareTo(extended.getTotalPrice()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(balanceOf(user)));
+    }
+
+    private List<Response<Void>> extendConcurrently(Integer orderId, Users user) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Response<Void>>> futures = new ArrayList<>(EXTENDS);
+        try (ExecutorService executor = Executors.newFixedThreadPool(EXTENDS)) {
+            for (int i = 0; i < EXTENDS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return ordersService.extendOrder(orderId, DAYS, user);
+                }));
+            }
+            start.countDown();
+        }
+
+        List<Response<Void>> responses = new ArrayList<>(EXTENDS);
+        for (Future<Response<Void>> future : futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+
+    private Users newUser(BigDecimal balance) {
+        return usersRepository.save(Users.builder()
+                .name("Extend")
+                .email("extend-" + UUID.randomUUID() + "@fasthost.test")
+                .password("-")
+                .key(UUID.randomUUID().toString())
+                .balance(balance)
+                .isActive(true)
+                .role(Role.USER)
+                .build());
+    }
+
+    private Orders newActiveOrder(Users user) {
+        return ordersRepository.save(Orders.builder()
+                .user(user)
+                .tariff(tariff)
+                .durationDays(DAYS)
+                .totalPrice(price)
+                .status(OrderStatus.ACTIVE)
+                .startTime(LocalDateTime.now().withNano(0))
+                .login("extend_" + UUID.randomUUID())
+                .paymentId(UUID.randomUUID().toString())
+                .passwordHash("-")
+                .build());
+    }
+
+    private BigDecimal balanceOf(Users user) {
+        return transactionTemplate.execute(status ->
+                usersRepository.findById(user.getId()).orElseThrow().getBalance());
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.fasthost.service;
+
+import org.example.fasthost.entity.Tariffs;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Chegirma pog'onalari chegaralarda (89/90, 179/180, 364/365 kun)
+ * va yarim tiyinni yuqoriga yaxlitlash.
+ */
+class PricingEngineTest {
+
+    // 1000.00 so'm kuniga
+    private static final long DAILY = 100_000;
+
+    @Test
+    void discountTiersSwitchExactlyOnBoundaries() {
+        assertEquals(10_000, PricingEngine.discountBp(1));
+        assertEquals(10_000, PricingEngine.discountBp(89));
+        assertEquals(9_500, PricingEngine.discountBp(90));
+        assertEquals(9_500, PricingEngine.discountBp(179));
+        assertEquals(9_000, PricingEngine.discountBp(180));
+        assertEquals(9_000, PricingEngine.discountBp(364));
+        assertEquals(8_500, PricingEngine.discountBp(365));
+        assertEquals(8_500, PricingEngine.discountBp(PricingEngine.MAX_DAYS));
+    }
+
+    @Test
+    void totalsOnTierBoundaries() {
+        assertEquals(8_900_000, PricingEngine.computeMinor(DAILY, 89));
+        assertEquals(8_550_000, PricingEngine.computeMinor(DAILY, 90));
+        assertEquals(17_005_000, PricingEngine.computeMinor(DAILY, 179));
+        assertEquals(16_200_000, PricingEngine.computeMinor(DAILY, 180));
+        assertEquals(32_760_000, PricingEngine.computeMinor(DAILY, 364));
+        assertEquals(31_025_000, PricingEngine.computeMinor(DAILY, 365));
+    }
+
+    @Test
+    void halfMinorUnitRoundsUp() {
+        // 1 tiyin x 90 x 0.95 = 85.5 -> 86
+        assertEquals(86, PricingEngine.computeMinor(1, 90));
+        // 333 x 90 x 0.95 = 28471.5 -> 28472
+        assertEquals(28_472, PricingEngine.computeMinor(333, 90));
+        // 333 x 365 x 0.85 = 103313.25 -> 103313
+        assertEquals(103_313, PricingEngine.computeMinor(333, 365));
+        // 1 tiyin x 180 x 0.9 = 162 (aniq)
+        assertEquals(162, PricingEngine.computeMinor(1, 180));
+    }
+
+    @Test
+    void majorMinorConversion() {
+        assertEquals(1_999, PricingEngine.toMinor(19.99));
+        assertEquals(13, PricingEngine.toMinor(0.125));
+        assertEquals(new BigDecimal("85500.00"), PricingEngine.toMajor(8_550_000));
+    }
+
+    @Test
+    void tablesMatchFormulaForEveryDay() {
+        Tariffs tariff = new Tariffs();
+        tariff.setId(7);
+        tariff.setName("Pricing");
+        tariff.setPrice(3.33);
+        tariff.setActive(true);
+
+        PricingEngine.Tables tables = PricingEngine.Tables.of(TariffCatalog.Snapshot.of(1, "test", List.of(tariff)));
+
+        long[] totals = tables.byTariff().get(7);
+        for (int days = 1; days <= PricingEngine.MAX_DAYS; days++) {
+            assertEquals(PricingEngine.computeMinor(333, days), totals[days], "days=" + days);
+        }
+        assertEquals(28_472, totals[90]);
+    }
+}
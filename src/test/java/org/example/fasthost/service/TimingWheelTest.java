@@ -0,0 +1,101 @@
+package org.example.fasthost.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Darajalar orasidagi cascade va bekor qilish: yozuv aynan o'z tickida chiqadi,
+ * bekor qilingani esa qaysi darajaga tushgan bo'lmasin chiqmaydi.
+ */
+class TimingWheelTest {
+
+    private static final long START = 1_000;
+
+    @Test
+    void entriesCascadeDownToTheirExactTick() {
+        TimingWheel wheel = new TimingWheel(START);
+        // 0-daraja (<64s), 1-daraja (<4096s), 2-daraja (<262144s)
+        wheel.schedule(1, START + 10);
+        wheel.schedule(2, START + 100);
+        wheel.schedule(3, START + 5_000);
+        wheel.schedule(4, START + 300_000);
+
+        assertEquals(List.of(), wheel.advanceTo(START + 9));
+        assertEquals(List.of(1), wheel.advanceTo(START + 10));
+        assertEquals(List.of(), wheel.advanceTo(START + 99));
+        assertEquals(List.of(2), wheel.advanceTo(START + 100));
+        assertEquals(List.of(), wheel.advanceTo(START + 4_999));
+        assertEquals(List.of(3), wheel.advanceTo(START + 5_000));
+        assertEquals(List.of(), wheel.advanceTo(START + 299_999));
+        assertEquals(List.of(4), wheel.advanceTo(START + 300_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void everyDeadlineInARangeFiresOnTime() {
+        TimingWheel wheel = new TimingWheel(START);
+        for (int delta = 0; delta < 10_000; delta += 7) {
+            wheel.schedule(delta, START + delta);
+        }
+
+        for (int delta = 0; delta < 10_000; delta++) {
+            List<Integer> due = wheel.advanceTo(START + delta);
+            assertEquals(delta % 7 == 0 ? List.of(delta) : List.of(), due, "tick +" + delta);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void canceledEntryNeverFires() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.schedule(1, START + 5_000);
+        wheel.schedule(2, START + 5_000);
+        wheel.schedule(3, START + 30);
+
+        // 2 yuqori darajadan pastga tushgandan keyin bekor qilinadi; 3 allaqachon chiqqan
+        assertEquals(List.of(3), wheel.advanceTo(START + 4_990));
+        assertTrue(wheel.cancel(2));
+        assertFalse(wheel.cancel(3));
+        assertFalse(wheel.cancel(2));
+
+        assertEquals(List.of(1), wheel.advanceTo(START + 5_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelBeforeCascadeUnlinksFromUpperLevel() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.schedule(1, START + 5_000);
+        wheel.schedule(2, START + 5_000);
+        wheel.schedule(3, START + 5_000);
+
+        // Ro'yxatning o'rtasidagi yozuv
+        assertTrue(wheel.cancel(2));
+
+        assertEquals(List.of(1, 3), wheel.advanceTo(START + 5_000).stream().sorted().toList());
+    }
+
+    @Test
+    void rescheduleReplacesDeadline() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.schedule(1, START + 10);
+        wheel.schedule(1, START + 200);
+        assertFalse(wheel.scheduleIfAbsent(1, START + 5));
+
+        assertEquals(List.of(), wheel.advanceTo(START + 199));
+        assertEquals(List.of(1), wheel.advanceTo(START + 200));
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        TimingWheel wheel = new TimingWheel(START);
+        wheel.schedule(1, START - 50);
+
+        assertEquals(List.of(1), wheel.advanceTo(START));
+    }
+}
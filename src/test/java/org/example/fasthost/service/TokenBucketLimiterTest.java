@@ -0,0 +1,79 @@
+package org.example.fasthost.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Token bucket: hajmgacha ketma-ket ruxsat, keyin har {@code period}'da bitta token,
+ * rad etilganda qaytadigan kutish — keyingi tokengacha aniq vaqt.
+ */
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long T0 = 1_000 * SECOND;
+
+    @Test
+    void burstUpToCapacityThenWaitForNextToken() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, SECOND, 1, 100);
+
+        assertEquals(0, limiter.tryAcquire("ip", T0));
+        assertEquals(0, limiter.tryAcquire("ip", T0));
+        assertEquals(0, limiter.tryAcquire("ip", T0));
+        assertEquals(SECOND, limiter.tryAcquire("ip", T0));
+
+        // Rad etilgan urinish bucket'ni o'zgartirmaydi
+        assertEquals(SECOND / 2, limiter.tryAcquire("ip", T0 + SECOND / 2));
+    }
+
+    @Test
+    void refillsOneTokenPerPeriod() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, SECOND, 1, 100);
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("ip", T0);
+        }
+
+        assertEquals(0, limiter.tryAcquire("ip", T0 + SECOND));
+        assertEquals(SECOND, limiter.tryAcquire("ip", T0 + SECOND));
+
+        assertEquals(0, limiter.tryAcquire("ip", T0 + 3 * SECOND));
+        assertEquals(0, limiter.tryAcquire("ip", T0 + 3 * SECOND));
+        assertEquals(SECOND, limiter.tryAcquire("ip", T0 + 3 * SECOND));
+    }
+
+    @Test
+    void idleBucketRefillsOnlyUpToCapacity() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, SECOND, 1, 100);
+        limiter.tryAcquire("ip", T0);
+
+        long later = T0 + 100 * SECOND;
+        assertEquals(0, limiter.tryAcquire("ip", later));
+        assertEquals(0, limiter.tryAcquire("ip", later));
+        assertEquals(0, limiter.tryAcquire("ip", later));
+        assertEquals(SECOND, limiter.tryAcquire("ip", later));
+    }
+
+    @Test
+    void keysAreIndependent() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, SECOND, 4, 100);
+
+        assertEquals(0, limiter.tryAcquire("a", T0));
+        assertEquals(SECOND, limiter.tryAcquire("a", T0));
+        assertEquals(0, limiter.tryAcquire("b", T0));
+    }
+
+    @Test
+    void evictsIdleAndLeastRecentlyUsedBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, SECOND, 1, 2);
+        limiter.tryAcquire("a", T0);
+        limiter.tryAcquire("b", T0);
+        limiter.tryAcquire("c", T0);
+        assertEquals(2, limiter.size());
+
+        assertEquals(0, limiter.evictIdle(T0));
+        assertEquals(2, limiter.evictIdle(T0 + SECOND));
+        assertEquals(0, limiter.size());
+    }
+}
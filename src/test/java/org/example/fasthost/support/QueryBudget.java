@@ -0,0 +1,69 @@
+package org.example.fasthost.support;
+
+import org.example.fasthost.config.QueryBudgetFilter;
+import org.example.fasthost.config.QueryScope;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * SQL soni bo'yicha test assertion'lari.
+ * <p>
+ * MockMvc so'rovlari uchun natija {@link QueryBudgetFilter} qoldirgan atributdan
+ * o'qiladi (filter MockMvc'ga qo'shilgan bo'lishi kerak); servis darajasidagi
+ * kod uchun {@link #capture(Runnable)}.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static QueryScope of(MvcResult result) {
+        Object stats = result.getRequest().getAttribute(QueryBudgetFilter.STATS_ATTRIBUTE);
+        if (!(stats instanceof QueryScope scope)) {
+            throw new AssertionError("SQL statistikasi yo'q: QueryBudgetFilter MockMvc'ga qo'shilmagan");
+        }
+        return scope;
+    }
+
+    /**
+     * Blokni joriy thread'da bajarib, uning SQL hisobini qaytaradi.
+     */
+    public static QueryScope capture(Runnable action) {
+        try (QueryScope scope = QueryScope.open()) {
+            action.run();
+            return scope;
+        }
+    }
+
+    public static void assertAtMost(MvcResult result, int maxQueries) {
+        assertAtMost(of(result), maxQueries);
+    }
+
+    public static void assertAtMost(QueryScope scope, int maxQueries) {
+        if (scope.total() > maxQueries) {
+            throw new AssertionError("SQL soni " + scope.total() + " > " + maxQueries + "\n" + describe(scope.repeated(1)));
+        }
+    }
+
+    /**
+     * Bir xil SQL {@code threshold} yoki undan ko'p marta bajarilmagan (N+1 yo'q).
+     */
+    public static void assertNoRepeatedQueries(MvcResult result, int threshold) {
+        assertNoRepeatedQueries(of(result), threshold);
+    }
+
+    public static void assertNoRepeatedQueries(QueryScope scope, int threshold) {
+        Map<String, Integer> repeated = scope.repeated(threshold);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("Takrorlangan SQL (N+1 shubhasi):\n" + describe(repeated));
+        }
+    }
+
+    private static String describe(Map<String, Integer> bySql) {
+        return bySql.entrySet().stream()
+                .map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}